@@ -0,0 +1,178 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the large, deterministic fixtures the benchmarks load through {@code -Dpages.file} and
+ * {@code -Dtestdata.file}: pages with several fallback locators per element, tests with many indexed actions and
+ * assertions, and 100,000-row CSV/JSON data files plus an equivalent generator.
+ */
+public class BenchmarkFixtures {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkFixtures.class);
+
+    public static final int PAGES = 200;
+    public static final int ELEMENTS_PER_PAGE = 20;
+    public static final int TESTS = 500;
+    public static final int ACTIONS_PER_TEST = 20;
+    public static final int ASSERTIONS_PER_TEST = 10;
+    public static final int PARAMS = 1000;
+    public static final int DATA_ROWS = 100_000;
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "target/jmh-fixtures");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("pages.properties"), pages());
+        Files.writeString(dir.resolve("tests.properties"), tests(dir));
+        writeData(dir);
+        logger.info("Wrote benchmark fixtures to {}", dir.toAbsolutePath());
+    }
+
+    private static String pages() {
+        StringBuilder pages = new StringBuilder();
+        for (int p = 0; p < PAGES; p++) {
+            pages.append("# Page ").append(p).append('\n');
+            pages.append("page.page").append(p).append(".path=/page").append(p).append('\n');
+            for (int e = 0; e < ELEMENTS_PER_PAGE; e++) {
+                String prefix = "page.page" + p + ".elements.el" + e;
+                pages.append(prefix).append(".type=input\n");
+                pages.append(prefix).append(".locator[0].type=id\n");
+                pages.append(prefix).append(".locator[0].value=page").append(p).append("-el").append(e).append('\n');
+                pages.append(prefix).append(".locator[1].type=css\n");
+                pages.append(prefix).append(".locator[1].value=#page").append(p).append(" [data-test='el").append(e).append("']\n");
+                pages.append(prefix).append(".locator[2].type=xpath\n");
+                pages.append(prefix).append(".locator[2].value=//form[@id='page").append(p)
+                        .append("']//*[@name='el").append(e).append("' and @data-user='${data.username}']\n");
+            }
+            pages.append('\n');
+        }
+        return pages.toString();
+    }
+
+    private static String tests(Path dir) {
+        StringBuilder tests = new StringBuilder("# Parameter Definitions\n");
+        for (int i = 0; i < PARAMS; i++) {
+            tests.append("param.p").append(i).append(".value=value-").append(i).append('\n');
+        }
+
+        tests.append("\n# Generated Data\n");
+        tests.append("datagen.users.columns=id,firstName,username,password,role\n");
+        tests.append("datagen.users.id=seq(1000)\n");
+        tests.append("datagen.users.firstName=pick(John|Jane|Alex|Maria|Wei|Priya)\n");
+        tests.append("datagen.users.username=template(user${data.id}@example.com)\n");
+        tests.append("datagen.users.password=pattern(Pass??##*)\n");
+        tests.append("datagen.users.role=pick(admin|editor|viewer)\n");
+
+        tests.append("\n# Data Sources\n");
+        tests.append("test.bench_csv.dataFile=").append(dir.resolve("users.csv")).append('\n');
+        tests.append("test.bench_json.dataFile=").append(dir.resolve("users.json")).append('\n');
+        tests.append("test.bench_gen.dataFile=gen:users?count=").append(DATA_ROWS).append("&seed=42\n");
+
+        String[] actionTypes = {"enter", "click", "clear", "submit"};
+        for (int t = 0; t < TESTS; t++) {
+            String prefix = "test.bench_test_" + t;
+            int page = t % PAGES;
+            tests.append("\n# Test ").append(t).append('\n');
+            tests.append(prefix).append(".description=Generated benchmark test ").append(t).append('\n');
+            tests.append(prefix).append(".initialPage=page").append(page).append('\n');
+            for (int a = 0; a < ACTIONS_PER_TEST; a++) {
+                String action = prefix + ".actions[" + a + "]";
+                tests.append(action).append(".page=page").append(page).append('\n');
+                tests.append(action).append(".element=el").append(a % ELEMENTS_PER_PAGE).append('\n');
+                tests.append(action).append(".action=").append(actionTypes[a % actionTypes.length]).append('\n');
+                tests.append(action).append(".value=${data.username}-${param.p").append((t + a) % PARAMS).append(".value}\n");
+            }
+            for (int a = 0; a < ASSERTIONS_PER_TEST; a++) {
+                String assertion = prefix + ".assertions[" + a + "]";
+                tests.append(assertion).append(".page=page").append(page).append('\n');
+                tests.append(assertion).append(".element=el").append(a % ELEMENTS_PER_PAGE).append('\n');
+                tests.append(assertion).append(".type=text\n");
+                tests.append(assertion).append(".value=text:\n");
+                tests.append(assertion).append(".condition=contains\n");
+            }
+        }
+
+        // Step dispatch fixtures run against StubWebDriver, so every action and assertion in them succeeds at once
+        tests.append("\n# Step Dispatch\n");
+        appendStepFixture(tests, "bench_steps", null);
+        appendStepFixture(tests, "bench_steps_waits", "present");
+        return tests.toString();
+    }
+
+    private static void appendStepFixture(StringBuilder tests, String testId, String assertionWait) {
+        String prefix = "test." + testId;
+        String[][] actions = {
+                {"enter", "el0", "${data.username}"},
+                {"enter", "el1", "${data.password}"},
+                {"clear", "el2", null},
+                {"click", "el3", null},
+                {"submit", "el4", null},
+                {"navigate", null, null},
+        };
+        for (int a = 0; a < actions.length; a++) {
+            String action = prefix + ".actions[" + a + "]";
+            tests.append(action).append(".action=").append(actions[a][0]).append('\n');
+            if (actions[a][1] != null) {
+                tests.append(action).append(".page=page0\n");
+                tests.append(action).append(".element=").append(actions[a][1]).append('\n');
+            } else {
+                tests.append(action).append(".targetPage=page0\n");
+            }
+            if (actions[a][2] != null) {
+                tests.append(action).append(".value=").append(actions[a][2]).append('\n');
+            }
+        }
+        String[][] assertions = {
+                {"url", null, "/page0", "contains"},
+                {"visible", "el0", "true", "equals"},
+                {"text", "el1", "text:", "contains"},
+                {"enabled", "el2", "true", "equals"},
+                {"attribute", "el3", "ready", "equals"},
+                {"count", "el4", "1", "equals"},
+        };
+        for (int a = 0; a < assertions.length; a++) {
+            String assertion = prefix + ".assertions[" + a + "]";
+            tests.append(assertion).append(".page=page0\n");
+            tests.append(assertion).append(".type=").append(assertions[a][0]).append('\n');
+            if (assertions[a][1] != null) {
+                tests.append(assertion).append(".element=").append(assertions[a][1]).append('\n');
+                if (assertionWait != null) {
+                    tests.append(assertion).append(".wait.assertion=").append(assertionWait).append('\n');
+                }
+            }
+            if (assertions[a][0].equals("attribute")) {
+                tests.append(assertion).append(".attributeName=data-state\n");
+            }
+            tests.append(assertion).append(".value=").append(assertions[a][2]).append('\n');
+            tests.append(assertion).append(".condition=").append(assertions[a][3]).append('\n');
+        }
+    }
+
+    private static void writeData(Path dir) throws IOException {
+        StringBuilder csv = new StringBuilder("id,firstName,username,password,role\n");
+        StringBuilder json = new StringBuilder("[\n");
+        String[] names = {"John", "Jane", "Alex", "Maria", "Wei", "Priya"};
+        String[] roles = {"admin", "editor", "viewer"};
+        for (int row = 0; row < DATA_ROWS; row++) {
+            String id = String.valueOf(1000 + row);
+            String firstName = names[row % names.length];
+            String username = "user" + id + "@example.com";
+            String password = "Pass" + Integer.toString(row * 7919 % 46656, 36);
+            String role = roles[row % roles.length];
+            csv.append(id).append(',').append(firstName).append(',').append(username).append(',')
+                    .append(password).append(',').append(role).append('\n');
+            json.append("  {\"id\": \"").append(id).append("\", \"firstName\": \"").append(firstName)
+                    .append("\", \"username\": \"").append(username).append("\", \"password\": \"").append(password)
+                    .append("\", \"role\": \"").append(role).append("\"}").append(row < DATA_ROWS - 1 ? ",\n" : "\n");
+        }
+        json.append("]\n");
+        Files.writeString(dir.resolve("users.csv"), csv);
+        Files.writeString(dir.resolve("users.json"), json);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.ConfigManager;
+
+/**
+ * Property lookups done for every action, assertion and data row, measured against the {@link BenchmarkFixtures}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigManagerBenchmark {
+
+    private Map<String, String> dataRow;
+
+    @Setup
+    public void setUp() {
+        dataRow = ConfigManager.getTestData("bench_gen").get(42);
+    }
+
+    @Benchmark
+    public String resolveParametersWithoutPlaceholders() {
+        return ConfigManager.resolveParameters("plain value without placeholders", dataRow);
+    }
+
+    @Benchmark
+    public String resolveParameters() {
+        return ConfigManager.resolveParameters("${data.username} / ${param.p500.value} / ${data.password}", dataRow);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> getElementLocators() {
+        return ConfigManager.getElementLocators("page100", "el10", dataRow);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> getTestActions() {
+        return ConfigManager.getTestActions("bench_test_250");
+    }
+
+    @Benchmark
+    public List<Map<String, String>> getTestAssertions() {
+        return ConfigManager.getTestAssertions("bench_test_250");
+    }
+}
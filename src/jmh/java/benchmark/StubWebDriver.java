@@ -0,0 +1,123 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import utils.BrowserScripts;
+
+/**
+ * In-memory {@link WebDriver} for benchmarking the step logic without a browser. Every locator matches a
+ * {@link StubWebElement}, and the {@link BrowserScripts} queries are answered as if the first locator matched.
+ */
+public class StubWebDriver implements WebDriver, JavascriptExecutor {
+
+    private String currentUrl;
+
+    public StubWebDriver(String currentUrl) {
+        this.currentUrl = currentUrl;
+    }
+
+    @Override
+    public void get(String url) {
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return List.of(new StubWebElement(by.toString()));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by.toString());
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Set.of("main");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "main";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        throw new UnsupportedOperationException("Frames and windows are not supported by the stub driver");
+    }
+
+    @Override
+    public Navigation navigate() {
+        throw new UnsupportedOperationException("History navigation is not supported by the stub driver");
+    }
+
+    @Override
+    public Options manage() {
+        throw new UnsupportedOperationException("Cookies and timeouts are not supported by the stub driver");
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        if (script.equals(BrowserScripts.FIND_FIRST)) {
+            List<?> locators = (List<?>) args[0];
+            return List.of(new StubWebElement(String.valueOf(((List<?>) locators.get(0)).get(1))), List.of(0L));
+        }
+        if (script.equals(BrowserScripts.SNAPSHOT)) {
+            List<Map<String, Object>> elements = new ArrayList<>();
+            for (Object request : (List<?>) args[0]) {
+                List<?> locators = (List<?>) ((Map<?, ?>) request).get("locators");
+                Map<String, Object> snapshot = new HashMap<>();
+                snapshot.put("found", locators != null);
+                snapshot.put("count", 1L);
+                if (locators != null) {
+                    StubWebElement element = new StubWebElement(String.valueOf(((List<?>) locators.get(0)).get(1)));
+                    snapshot.put("matched", List.of(0L));
+                    snapshot.put("visible", element.isDisplayed());
+                    snapshot.put("text", element.getText());
+                    snapshot.put("enabled", element.isEnabled());
+                    snapshot.put("attribute", element.getAttribute(String.valueOf(((Map<?, ?>) request).get("attribute"))));
+                }
+                elements.add(snapshot);
+            }
+            return Map.of("url", currentUrl, "elements", elements);
+        }
+        return Boolean.TRUE;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return executeScript(script, args);
+    }
+}
@@ -0,0 +1,48 @@
+package benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import utils.ConfigManager;
+
+/**
+ * Loading and reading every row of the 100,000-row data sources from {@link BenchmarkFixtures}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TestDataBenchmark {
+
+    @Benchmark
+    public void csv(Blackhole blackhole) {
+        readAll(ConfigManager.getTestData("bench_csv"), blackhole);
+    }
+
+    @Benchmark
+    public void json(Blackhole blackhole) {
+        readAll(ConfigManager.getTestData("bench_json"), blackhole);
+    }
+
+    @Benchmark
+    public void generated(Blackhole blackhole) {
+        readAll(ConfigManager.getTestData("bench_gen"), blackhole);
+    }
+
+    private static void readAll(List<Map<String, String>> rows, Blackhole blackhole) {
+        for (int row = 0; row < rows.size(); row++) {
+            blackhole.consume(rows.get(row).get("username"));
+        }
+    }
+}
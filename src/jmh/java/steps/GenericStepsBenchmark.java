@@ -0,0 +1,70 @@
+package steps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmark.StubWebDriver;
+import utils.ConfigManager;
+
+/**
+ * Framework overhead of action and assertion dispatch, locator resolution and the retry wrapper, run against a
+ * {@link StubWebDriver} so no time is spent in a browser.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GenericStepsBenchmark {
+
+    private GenericSteps steps;
+    private Map<String, String> dataRow;
+    private List<Map<String, String>> actions;
+    private List<Map<String, String>> assertions;
+    private List<Map<String, String>> waitingAssertions;
+
+    @Setup
+    public void setUp() {
+        steps = new GenericSteps();
+        steps.attachDriver(new StubWebDriver(ConfigManager.getConfig("baseUrl") + ConfigManager.getPageProperty("page0", "path")));
+        dataRow = ConfigManager.getTestData("bench_gen").get(42);
+        actions = ConfigManager.getTestActions("bench_steps");
+        assertions = ConfigManager.getTestAssertions("bench_steps");
+        // Assertions with a wait are never batched, so these take the one-by-one path even with assertions.batch=true
+        waitingAssertions = ConfigManager.getTestAssertions("bench_steps_waits");
+    }
+
+    @Benchmark
+    public void executeActions() {
+        steps.executeActions(actions, dataRow);
+    }
+
+    @Benchmark
+    public void executeAssertions() {
+        steps.executeAssertions(assertions, dataRow);
+    }
+
+    @Benchmark
+    public void executeAssertionsWithWaits() {
+        steps.executeAssertions(waitingAssertions, dataRow);
+    }
+
+    @Benchmark
+    public void executeWithRetry() {
+        steps.executeWithRetry("no-op step", () -> {
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package runner;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import utils.ConfigManager;
+import utils.ShardPlan;
+import utils.TestHistory;
+
+/**
+ * Records scenario durations and results into the {@link TestHistory} and reports the makespan expected
+ * from history against the actual wall-clock time of the run. Runs with {@code -Dresume=true} skip the rows that
+ * already passed, so their durations are not recorded.
+ */
+public class HistoryPlugin implements ConcurrentEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoryPlugin.class);
+    private final TestHistory history = TestHistory.getInstance();
+    private final boolean resumed = Boolean.getBoolean("resume");
+    private final List<Long> expectedDurations = new ArrayList<>();
+    private int unknownDurations;
+    private Instant runStarted;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> runStarted = event.getInstant());
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onTestRunFinished);
+    }
+
+    private synchronized void onTestCaseStarted(TestCaseStarted event) {
+        Long duration = history.getDuration(event.getTestCase().getName());
+        if (duration != null) {
+            expectedDurations.add(duration);
+        } else {
+            unknownDurations++;
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        if (resumed) {
+            return;
+        }
+        history.record(event.getTestCase().getName(), event.getResult().getDuration().toMillis(),
+                event.getResult().getStatus() == Status.PASSED);
+    }
+
+    private synchronized void onTestRunFinished(TestRunFinished event) {
+        ShardPlan shardPlan = ShardPlan.current();
+        if (resumed) {
+            logger.info("Resumed run, scenario durations are not recorded in the test history");
+        } else if (shardPlan.isSharded()) {
+            history.saveShard(shardPlan.getIndex());
+        } else {
+            history.save();
+        }
+        // Set from surefire's thread count by the pom; the config value covers runs outside Maven
+        String workersProp = System.getProperty("scheduler.workers", ConfigManager.getConfig("scheduler.workers"));
+        int workers = workersProp != null ? Integer.parseInt(workersProp.trim()) : 1;
+        long expected = TestHistory.estimateMakespan(expectedDurations, workers);
+        long actual = runStarted != null ? Duration.between(runStarted, event.getInstant()).toMillis() : -1;
+        logger.info("Makespan: expected {} ms from history ({} scenarios on {} workers, {} without history), actual {} ms",
+                expected, expectedDurations.size(), workers, unknownDurations, actual);
+    }
+}
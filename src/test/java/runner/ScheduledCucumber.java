@@ -0,0 +1,150 @@
+package runner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.runner.Description;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.manipulation.NoTestsRemainException;
+import org.junit.runner.manipulation.Sorter;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.ParentRunner;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cucumber.junit.Cucumber;
+import utils.ConfigManager;
+import utils.FeatureGenerator;
+import utils.ShardPlan;
+import utils.TestHistory;
+
+/**
+ * Runs Cucumber on the scenarios generated by {@link FeatureGenerator} (when {@code features.generate} is set) with
+ * its pickles ordered longest-first (and optionally recently failing first) from the
+ * local {@link TestHistory}, restricted to the scenarios owned by the current {@link ShardPlan}. Surefire's
+ * parallel scheduler is passed through to the wrapped runner.
+ */
+public class ScheduledCucumber extends ParentRunner<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledCucumber.class);
+    private final Cucumber cucumber;
+    private boolean empty;
+
+    public ScheduledCucumber(Class<?> testClass) throws InitializationError {
+        super(testClass);
+        ShardPlan shardPlan = ShardPlan.current();
+        if (shardPlan.isSharded() && System.getProperty("cucumber.plugin") == null) {
+            // Added to the annotation plugins so each shard leaves its own report for ShardReportMerger
+            String shardReport = "target/shards/shard-" + shardPlan.getIndex();
+            System.setProperty("cucumber.plugin", "json:" + shardReport + ".json, junit:" + shardReport + ".xml");
+        }
+        if (Boolean.parseBoolean(String.valueOf(ConfigManager.getConfig("features.generate")).trim())
+                && System.getProperty("cucumber.features") == null) {
+            try {
+                Path feature = FeatureGenerator.generate(Paths.get("target/generated-features/GenericTests.feature"));
+                System.setProperty("cucumber.features", feature.toString());
+            } catch (IOException e) {
+                throw new InitializationError(e);
+            }
+        }
+        cucumber = new Cucumber(testClass);
+        if (shardPlan.isSharded()) {
+            applyShard(shardPlan);
+        }
+        TestHistory history = TestHistory.getInstance();
+        // Feature descriptions are cached by Cucumber, so log the order before sorting rather than after
+        logger.info("Scheduled scenarios by duration history: {}", cucumber.getDescription().getChildren().stream()
+                .flatMap(feature -> feature.getChildren().stream())
+                .map(ScheduledCucumber::key)
+                .sorted(history.schedulingOrder())
+                .toList());
+        cucumber.sort(new Sorter(byHistory(history)));
+    }
+
+    private void applyShard(ShardPlan shardPlan) {
+        try {
+            cucumber.filter(new Filter() {
+                @Override
+                public boolean shouldRun(Description description) {
+                    return description.isTest()
+                            ? shardPlan.ownsScenario(key(description))
+                            : description.getChildren().stream().anyMatch(this::shouldRun);
+                }
+
+                @Override
+                public String describe() {
+                    return "shard " + shardPlan.getIndex() + " of " + shardPlan.getTotal();
+                }
+            });
+        } catch (NoTestsRemainException e) {
+            logger.warn("Shard {} of {} owns no scenarios", shardPlan.getIndex(), shardPlan.getTotal());
+            empty = true;
+        }
+    }
+
+    private static Comparator<Description> byHistory(TestHistory history) {
+        Comparator<String> order = history.schedulingOrder();
+        return (a, b) -> a.isTest() && b.isTest()
+                ? order.compare(key(a), key(b))
+                : Long.compare(estimate(history, b), estimate(history, a));
+    }
+
+    private static long estimate(TestHistory history, Description description) {
+        if (description.isTest()) {
+            return history.estimateDuration(key(description));
+        }
+        return description.getChildren().stream().mapToLong(child -> estimate(history, child)).sum();
+    }
+
+    static String key(Description description) {
+        return description.getMethodName() != null ? description.getMethodName() : description.getDisplayName();
+    }
+
+    // The children are Cucumber's; this runner has none of its own, so the two methods below are never reached
+    @Override
+    protected List<Object> getChildren() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected Description describeChild(Object child) {
+        return Description.EMPTY;
+    }
+
+    @Override
+    protected void runChild(Object child, RunNotifier notifier) {
+    }
+
+    @Override
+    public Description getDescription() {
+        return cucumber.getDescription();
+    }
+
+    @Override
+    public void run(RunNotifier notifier) {
+        if (!empty) {
+            cucumber.run(notifier);
+        }
+    }
+
+    @Override
+    public void setScheduler(RunnerScheduler scheduler) {
+        cucumber.setScheduler(scheduler);
+    }
+
+    @Override
+    public void filter(Filter filter) throws NoTestsRemainException {
+        cucumber.filter(filter);
+    }
+
+    @Override
+    public void sort(Sorter sorter) {
+        cucumber.sort(sorter);
+    }
+}
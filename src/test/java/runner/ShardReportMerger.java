@@ -0,0 +1,121 @@
+package runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import utils.TestHistory;
+
+/**
+ * Combines the per-shard Cucumber JSON and JUnit XML reports written by {@link ScheduledCucumber} into
+ * {@code cucumber-merged.json} and {@code cucumber-merged.xml}, and folds the shards' duration history back
+ * into the shared {@link TestHistory}.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass=runner.ShardReportMerger -Dexec.classpathScope=test [-Dexec.args="target/shards target"]
+ * </pre>
+ */
+public class ShardReportMerger {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardReportMerger.class);
+    private static final String[] COUNTERS = {"tests", "failures", "errors", "skipped"};
+
+    public static void main(String[] args) throws Exception {
+        File shardDir = new File(args.length > 0 ? args[0] : "target/shards");
+        File outputDir = new File(args.length > 1 ? args[1] : "target");
+        File[] jsonReports = listReports(shardDir, ".json");
+        File[] xmlReports = listReports(shardDir, ".xml");
+        if (jsonReports.length == 0 && xmlReports.length == 0) {
+            throw new IllegalStateException("No shard reports found in " + shardDir.getAbsolutePath());
+        }
+        if (jsonReports.length > 0) {
+            mergeJson(jsonReports, new File(outputDir, "cucumber-merged.json"));
+        }
+        if (xmlReports.length > 0) {
+            mergeJunit(xmlReports, new File(outputDir, "cucumber-merged.xml"));
+        }
+        TestHistory.getInstance().mergeShards();
+    }
+
+    private static File[] listReports(File shardDir, String extension) {
+        File[] reports = shardDir.listFiles((dir, name) -> name.startsWith("shard-") && name.endsWith(extension));
+        if (reports == null) {
+            return new File[0];
+        }
+        Arrays.sort(reports);
+        return reports;
+    }
+
+    private static void mergeJson(File[] reports, File output) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        // Features run on several shards are combined into one entry with all of their scenarios
+        Map<String, ObjectNode> features = new LinkedHashMap<>();
+        for (File report : reports) {
+            for (JsonNode feature : mapper.readTree(report)) {
+                ObjectNode merged = features.get(feature.path("uri").asText());
+                if (merged == null) {
+                    features.put(feature.path("uri").asText(), (ObjectNode) feature.deepCopy());
+                } else {
+                    ArrayNode elements = merged.withArray("elements");
+                    feature.path("elements").forEach(elements::add);
+                }
+            }
+        }
+        ArrayNode result = mapper.createArrayNode();
+        features.values().forEach(result::add);
+        mapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+        logger.info("Merged {} JSON shard reports ({} features) into {}", reports.length, features.size(), output);
+    }
+
+    private static void mergeJunit(File[] reports, File output) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        Document merged = factory.newDocumentBuilder().newDocument();
+        Element suite = merged.createElement("testsuite");
+        suite.setAttribute("name", "Cucumber");
+        merged.appendChild(suite);
+        long[] counters = new long[COUNTERS.length];
+        double time = 0;
+        for (File report : reports) {
+            Element shardSuite = factory.newDocumentBuilder().parse(report).getDocumentElement();
+            for (int i = 0; i < COUNTERS.length; i++) {
+                String value = shardSuite.getAttribute(COUNTERS[i]);
+                counters[i] += value.isEmpty() ? 0 : Long.parseLong(value);
+            }
+            String shardTime = shardSuite.getAttribute("time");
+            time += shardTime.isEmpty() ? 0 : Double.parseDouble(shardTime);
+            NodeList testCases = shardSuite.getElementsByTagName("testcase");
+            for (int i = 0; i < testCases.getLength(); i++) {
+                suite.appendChild(merged.importNode(testCases.item(i), true));
+            }
+        }
+        for (int i = 0; i < COUNTERS.length; i++) {
+            suite.setAttribute(COUNTERS[i], String.valueOf(counters[i]));
+        }
+        suite.setAttribute("time", String.format(Locale.ROOT, "%.3f", time));
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(output));
+        logger.info("Merged {} JUnit shard reports ({} tests) into {}", reports.length, counters[0], output);
+    }
+}
@@ -1,14 +1,13 @@
 package runner;
 
-import io.cucumber.junit.Cucumber;
 import io.cucumber.junit.CucumberOptions;
 import org.junit.runner.RunWith;
 
-@RunWith(Cucumber.class)
+@RunWith(ScheduledCucumber.class)
 @CucumberOptions(
         features = "src/test/resources/features",
         glue = "steps",
-        plugin = {"pretty", "html:target/cucumber-reports.html", "junit:target/surefire-reports/cucumber.xml"},
+        plugin = {"pretty", "html:target/cucumber-reports.html", "junit:target/surefire-reports/cucumber.xml", "runner.HistoryPlugin"},
         monochrome = true
 )
 public class TestRunner {
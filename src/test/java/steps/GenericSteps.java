@@ -3,16 +3,20 @@ package steps;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -27,6 +31,7 @@ import static org.junit.Assert.assertTrue;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -40,22 +45,30 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
-import io.github.bonigarcia.wdm.WebDriverManager;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import utils.BrowserMemoryMonitor;
+import utils.BrowserScripts;
+import utils.ChromeDriverSetup;
 import utils.ConfigManager;
+import utils.LocatorStats;
+import utils.RestCassette;
+import utils.RowCheckpoint;
+import utils.ShardPlan;
 
 public class GenericSteps {
 
     private static final Logger logger = LoggerFactory.getLogger(GenericSteps.class);
+    private static final Set<String> BATCHABLE_ASSERTIONS = Set.of("url", "visible", "text", "count", "enabled", "attribute");
     private WebDriver driver;
     private Map<String, Map<String, WebElement>> pages = new HashMap<>();
     private Map<String, Set<org.openqa.selenium.Cookie>> savedStates = new HashMap<>();
@@ -66,19 +79,16 @@ public class GenericSteps {
     private KafkaConsumer<String, String> kafkaConsumer;
     private OkHttpClient httpClient;
     private boolean kafkaEnabled;
+    private RowCheckpoint checkpoint;
+    private Path profileDir;
 
     @Before
     public void setUp(Scenario scenario) {
         this.scenario = scenario;
         logger.info("Starting setup for scenario: {}", scenario.getName());
-        WebDriverManager.chromedriver().setup();
-        ChromeOptions options = new ChromeOptions();
-        String chromeArgs = ConfigManager.getConfig("webdriver.chrome.args");
-        logger.debug("Chrome arguments: {}", chromeArgs);
-        if (chromeArgs != null && !chromeArgs.isEmpty()) {
-            options.addArguments(chromeArgs.split(","));
-        }
-        initializeDriver(options);
+        ChromeDriverSetup.resolveDriver();
+        logger.debug("Chrome arguments: {}", ConfigManager.getConfig("webdriver.chrome.args"));
+        initializeDriver();
         retryAttempts = Integer.parseInt(ConfigManager.getConfig("retryAttempts"));
         retryDelaySeconds = Integer.parseInt(ConfigManager.getConfig("retryDelaySeconds"));
 
@@ -113,6 +123,12 @@ public class GenericSteps {
     @After
     public void tearDown() {
         logger.info("Tearing down scenario: {}", scenario.getName());
+        if (checkpoint != null) {
+            checkpoint.flush();
+            String summary = checkpoint.summary();
+            logger.info(summary);
+            scenario.log(summary);
+        }
         if (driver != null) {
             if (scenario.isFailed() && Boolean.parseBoolean(ConfigManager.getConfig("report.screenshotsOnFailure"))) {
                 try {
@@ -130,6 +146,8 @@ public class GenericSteps {
                 logger.warn("Failed to quit driver during teardown", e);
             }
             driver = null; // Ensure driver is null after quitting
+            ChromeDriverSetup.deleteProfile(profileDir);
+            profileDir = null;
         }
         if (kafkaEnabled) {
             if (kafkaProducer != null) {
@@ -144,19 +162,47 @@ public class GenericSteps {
         }
     }
 
-    private void initializeDriver(ChromeOptions options) {
+    /**
+     * Runs the step logic against an already created driver without a Cucumber scenario, as the benchmarks do.
+     */
+    void attachDriver(WebDriver driver) {
+        this.driver = driver;
+        retryAttempts = Integer.parseInt(ConfigManager.getConfig("retryAttempts"));
+        retryDelaySeconds = Integer.parseInt(ConfigManager.getConfig("retryDelaySeconds"));
+    }
+
+    private ChromeOptions createChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        String chromeArgs = ConfigManager.getConfig("webdriver.chrome.args");
+        if (chromeArgs != null && !chromeArgs.isEmpty()) {
+            options.addArguments(chromeArgs.split(","));
+        }
+        return options;
+    }
+
+    private void initializeDriver() {
         int maxAttempts = 3;
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-            logger.debug("Initializing ChromeDriver with options: {} (Attempt {}/{})", options.getCapability("goog:chromeOptions"), attempt, maxAttempts);
+            ChromeOptions options = createChromeOptions();
             if (driver != null) {
                 try {
                     driver.quit();
                 } catch (Exception e) {
                     logger.warn("Failed to quit existing driver cleanly on attempt {}/{}", attempt, maxAttempts, e);
                 }
+                driver = null;
             }
+            ChromeDriverSetup.deleteProfile(profileDir);
+            profileDir = ChromeDriverSetup.createProfile(options);
+            if (profileDir != null) {
+                options.addArguments("--user-data-dir=" + profileDir);
+            }
+            logger.debug("Initializing ChromeDriver with options: {} (Attempt {}/{})", options.getCapability("goog:chromeOptions"), attempt, maxAttempts);
             try {
+                long launchStart = System.currentTimeMillis();
                 driver = new ChromeDriver(options);
+                logger.info("ChromeDriver started in {} ms{}", System.currentTimeMillis() - launchStart,
+                        profileDir != null ? " from profile template copy " + profileDir : "");
                 driver.manage().timeouts().implicitlyWait(
                         Long.parseLong(ConfigManager.getConfig("implicitWait")),
                         TimeUnit.SECONDS
@@ -166,6 +212,10 @@ public class GenericSteps {
                 return; // Success, exit the loop
             } catch (Exception e) {
                 logger.error("Failed to initialize ChromeDriver on attempt {}/{}", attempt, maxAttempts, e);
+                if (e instanceof SessionNotCreatedException && ChromeDriverSetup.invalidateDriver()) {
+                    logger.warn("Cached chromedriver may not match the installed Chrome, resolving it again");
+                    ChromeDriverSetup.resolveDriver();
+                }
                 if (attempt == maxAttempts) {
                     throw new RuntimeException("ChromeDriver initialization failed after " + maxAttempts + " attempts", e);
                 }
@@ -204,6 +254,11 @@ public class GenericSteps {
 
     @When("user executes test {string}")
     public void userExecutesTest(String testId) {
+        userExecutesTestRows(testId, 0, Integer.MAX_VALUE);
+    }
+
+    @When("user executes test {string} rows {int} to {int}")
+    public void userExecutesTestRows(String testId, int fromRow, int toRow) {
         logger.info("Starting test execution: {}", testId);
         List<Map<String, String>> testData = ConfigManager.getTestData(testId);
         List<Map<String, String>> actions = ConfigManager.getTestActions(testId);
@@ -212,19 +267,24 @@ public class GenericSteps {
             logger.debug("No test data found, executing actions directly");
             executeActions(actions, null);
         } else {
-            String resetDriverProp = ConfigManager.getConfig(testId + ".resetDriverPerIteration");
+            String resetDriverProp = getTestSetting(testId, "resetDriverPerIteration");
             boolean resetDriverPerIteration = resetDriverProp != null ? Boolean.parseBoolean(resetDriverProp) : false;
-            String startPage = ConfigManager.getConfig(testId + ".startPage");
-            ChromeOptions options = new ChromeOptions();
-            String chromeArgs = ConfigManager.getConfig("webdriver.chrome.args");
-            if (chromeArgs != null && !chromeArgs.isEmpty()) {
-                options.addArguments(chromeArgs.split(","));
-            }
-
-            for (Map<String, String> dataRow : testData) {
+            String startPage = getTestSetting(testId, "startPage");
+            BrowserMemoryMonitor memoryMonitor = resetDriverPerIteration ? null : BrowserMemoryMonitor.fromConfig(testId);
+
+            // Rows whose actions completed before an interrupted run only need their assertions again, except the
+            // last one: the assertions check the browser state its actions leave behind
+            List<Integer> remainingRows = getRowsToRun(testId, testData, fromRow, toRow);
+            List<Integer> rowIndices = IntStream.range(0, remainingRows.size())
+                    .filter(i -> i == remainingRows.size() - 1 || !checkpoint.actionsDone(remainingRows.get(i)))
+                    .mapToObj(remainingRows::get)
+                    .toList();
+            for (int i = 0; i < rowIndices.size(); i++) {
+                int rowIndex = rowIndices.get(i);
+                Map<String, String> dataRow = testData.get(rowIndex);
                 logger.info("Executing test {} with data: {}", testId, dataRow);
                 if (resetDriverPerIteration) {
-                    initializeDriver(options);
+                    initializeDriver();
                     if (driver == null) {
                         throw new IllegalStateException("Driver is null after reinitialization for test " + testId + " with data: " + dataRow);
                     }
@@ -232,12 +292,44 @@ public class GenericSteps {
                         userIsOnPage(startPage);
                     }
                 }
-                executeActions(actions, dataRow);
+                long iterationStart = System.currentTimeMillis();
+                try {
+                    executeActions(actions, dataRow);
+                } catch (RuntimeException | AssertionError e) {
+                    checkpoint.record(rowIndex, false);
+                    throw e;
+                }
+                checkpoint.recordActionsDone(rowIndex);
+
+                // Only recycle between rows; the final browser state is still needed by the assertions
+                if (memoryMonitor != null && i < rowIndices.size() - 1) {
+                    String recycleReason = memoryMonitor.checkRecycle(driver, System.currentTimeMillis() - iterationStart);
+                    if (recycleReason != null) {
+                        logger.warn("Recycling driver for test {} after data row {}: {}", testId, rowIndex, recycleReason);
+                        String currentUrl = driver.getCurrentUrl();
+                        initializeDriver();
+                        memoryMonitor.reset();
+                        // The next row continues where the old session was unless the test defines its start page
+                        if (startPage != null) {
+                            userIsOnPage(startPage);
+                        } else {
+                            driver.get(currentUrl);
+                        }
+                    }
+                }
             }
         }
     }
 
-    private void executeActions(List<Map<String, String>> actions, Map<String, String> data) {
+    /**
+     * Reads {@code test.<id>.<key>} from tests.properties, falling back to {@code <id>.<key>} in the environment config.
+     */
+    private String getTestSetting(String testId, String key) {
+        String value = ConfigManager.getTestProperty(testId, key);
+        return value != null ? value : ConfigManager.getConfig(testId + "." + key);
+    }
+
+    void executeActions(List<Map<String, String>> actions, Map<String, String> data) {
         AtomicInteger actionIndex = new AtomicInteger(0);
         while (actionIndex.get() < actions.size()) {
             Map<String, String> action = actions.get(actionIndex.get());
@@ -402,20 +494,32 @@ public class GenericSteps {
                         String method = action.get("rest.method");
                         String url = ConfigManager.resolveParameters(action.get("rest.url"), data);
                         String body = ConfigManager.resolveParameters(action.get("rest.body"), data);
-                        Request.Builder requestBuilder = new Request.Builder().url(url);
+                        Map<String, String> headers = new HashMap<>();
                         action.entrySet().stream()
                                 .filter(e -> e.getKey().startsWith("rest.header."))
-                                .forEach(e -> requestBuilder.addHeader(
+                                .forEach(e -> headers.put(
                                 e.getKey().substring("rest.header.".length()),
                                 ConfigManager.resolveParameters(e.getValue(), data)));
+                        RestCassette cassette = RestCassette.getInstance();
+                        if (cassette.isReplay()) {
+                            RestCassette.RecordedResponse recorded = cassette.replay(method, url, body, headers);
+                            assertTrue("REST call failed: " + recorded.code(), recorded.code() >= 200 && recorded.code() < 300);
+                            logger.debug("REST {} call to {} replayed: {}", method, url, recorded.code());
+                            break;
+                        }
+                        Request.Builder requestBuilder = new Request.Builder().url(url);
+                        headers.forEach(requestBuilder::addHeader);
                         if (body != null) {
                             requestBuilder.method(method, RequestBody.create(body,
                                     MediaType.parse(action.getOrDefault("rest.header.Content-Type", "application/json"))));
                         } else {
                             requestBuilder.method(method, null);
                         }
-                        try {
-                            Response response = httpClient.newCall(requestBuilder.build()).execute();
+                        try (Response response = httpClient.newCall(requestBuilder.build()).execute()) {
+                            if (cassette.isRecord()) {
+                                cassette.record(method, url, body, headers, new RestCassette.RecordedResponse(
+                                        response.code(), response.header("Content-Type"), response.body() != null ? response.body().bytes() : new byte[0]));
+                            }
                             assertTrue("REST call failed: " + response.code(), response.isSuccessful());
                             logger.debug("REST {} call to {} returned: {}", method, url, response.code());
                         } catch (IOException e) {
@@ -443,107 +547,273 @@ public class GenericSteps {
 
     @Then("results match expected outcomes for test {string}")
     public void resultsMatchExpected(String testId) {
+        resultsMatchExpectedRows(testId, 0, Integer.MAX_VALUE);
+    }
+
+    @Then("results match expected outcomes for test {string} rows {int} to {int}")
+    public void resultsMatchExpectedRows(String testId, int fromRow, int toRow) {
         List<Map<String, String>> testData = ConfigManager.getTestData(testId);
         List<Map<String, String>> assertions = ConfigManager.getTestAssertions(testId);
 
         if (testData == null) {
             executeAssertions(assertions, null);
         } else {
-            for (Map<String, String> dataRow : testData) {
+            for (int rowIndex : getRowsToRun(testId, testData, fromRow, toRow)) {
+                Map<String, String> dataRow = testData.get(rowIndex);
                 logger.info("Verifying assertions for test {} with data: {}", testId, dataRow);
-                executeAssertions(assertions, dataRow);
+                try {
+                    executeAssertions(assertions, dataRow);
+                } catch (RuntimeException | AssertionError e) {
+                    checkpoint.record(rowIndex, false);
+                    throw e;
+                }
+                checkpoint.record(rowIndex, true);
             }
         }
     }
 
-    private void executeAssertions(List<Map<String, String>> assertions, Map<String, String> data) {
-        for (Map<String, String> assertion : assertions) {
-            String pageId = assertion.get("page");
-            String type = assertion.get("type");
-            String value = ConfigManager.resolveParameters(assertion.get("value"), data);
-            String elementId = assertion.getOrDefault("element", null);
-            String condition = assertion.get("condition");
+    private List<Integer> getRowsToRun(String testId, List<Map<String, String>> testData, int fromRow, int toRow) {
+        ShardPlan shardPlan = ShardPlan.current();
+        List<Integer> rowIndices = IntStream.rangeClosed(fromRow, Math.min(toRow, testData.size() - 1))
+                .filter(row -> shardPlan.ownsRow(testId, row))
+                .boxed()
+                .toList();
+        if (shardPlan.isSharded()) {
+            logger.info("Shard {} of {} runs {} of {} data rows for test {}",
+                    shardPlan.getIndex(), shardPlan.getTotal(), rowIndices.size(), testData.size(), testId);
+        }
+        // The checkpoint is opened once per scenario so the actions and assertions skip the same passed rows
+        if (checkpoint == null) {
+            checkpoint = RowCheckpoint.open(testId, rowIndices);
+        }
+        return rowIndices.stream().filter(row -> !checkpoint.alreadyPassed(row)).toList();
+    }
 
-            String assertionDescription = String.format("Assertion '%s' on page '%s'%s with expected value '%s' and condition '%s'",
-                    type, pageId != null ? pageId : "N/A",
-                    elementId != null ? ", element '" + elementId + "'" : "",
-                    value, condition);
+    void executeAssertions(List<Map<String, String>> assertions, Map<String, String> data) {
+        boolean batchEnabled = Boolean.parseBoolean(String.valueOf(ConfigManager.getConfig("assertions.batch")).trim());
+        int start = 0;
+        while (start < assertions.size()) {
+            if (!batchEnabled || !isBatchable(assertions.get(start))) {
+                executeAssertion(assertions.get(start), data);
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < assertions.size() && isBatchable(assertions.get(end))
+                    && Objects.equals(assertions.get(end).get("page"), assertions.get(start).get("page"))) {
+                end++;
+            }
+            executeAssertionBatch(assertions.subList(start, end), data);
+            start = end;
+        }
+    }
 
-            executeWithRetry(assertionDescription, () -> {
-                logger.debug("Verifying assertion: {}", assertion);
-                applyWait(assertion, pageId, elementId, data);
+    private boolean isBatchable(Map<String, String> assertion) {
+        return BATCHABLE_ASSERTIONS.contains(assertion.get("type"))
+                && assertion.keySet().stream().noneMatch(key -> key.startsWith("wait."));
+    }
 
-                // Reload page elements before assertion to avoid staleness
-                if (elementId != null && pageId != null) {
-                    loadPageElements(pageId, assertion);
-                }
+    /**
+     * Evaluates consecutive assertions on the same page against one browser-side snapshot, retrying the whole batch
+     * if any of them fails.
+     */
+    private void executeAssertionBatch(List<Map<String, String>> batch, Map<String, String> data) {
+        String pageId = batch.get(0).get("page");
+        LocatorStats locatorStats = LocatorStats.getInstance();
+        List<Map<String, Object>> requests = new ArrayList<>();
+        List<List<Map<String, String>>> batchLocators = new ArrayList<>();
+        for (Map<String, String> assertion : batch) {
+            Map<String, Object> request = new HashMap<>();
+            String elementId = assertion.get("element");
+            List<Map<String, String>> locators = elementId != null
+                    ? locatorStats.order(pageId, elementId, ConfigManager.getElementLocators(pageId, elementId, assertion))
+                    : List.of();
+            if (!locators.isEmpty()) {
+                request.put("locators", locators.stream().map(locator -> List.of(locator.get("type"), locator.get("value"))).toList());
+            }
+            if ("count".equals(assertion.get("type"))) {
+                // Counted with the configured primary locator, like executeAssertion does
+                Map<String, String> countLocator = ConfigManager.getElementLocators(pageId, elementId, null).get(0);
+                request.put("count", List.of(countLocator.get("type"), countLocator.get("value")));
+            }
+            if ("attribute".equals(assertion.get("type"))) {
+                request.put("attribute", assertion.get("attributeName"));
+            }
+            requests.add(request);
+            batchLocators.add(locators);
+        }
 
+        executeWithRetry(String.format("Batch of %d assertions on page '%s'", batch.size(), pageId != null ? pageId : "N/A"), () -> {
+            // Like loadPageElements, wait for elements that are rendered asynchronously before asserting on them
+            AtomicReference<Map<?, ?>> latest = new AtomicReference<>();
+            try {
+                Awaitility.await()
+                        .pollDelay(Duration.ZERO)
+                        .atMost(Duration.ofSeconds(getTimeout(null)))
+                        .until(() -> {
+                            latest.set((Map<?, ?>) ((JavascriptExecutor) driver).executeScript(BrowserScripts.SNAPSHOT, requests));
+                            return allElementsFound(batch, (List<?>) latest.get().get("elements"));
+                        });
+            } catch (org.awaitility.core.ConditionTimeoutException e) {
+                // The first element that is still missing is reported below
+            }
+            Map<?, ?> snapshot = latest.get();
+            List<?> elementSnapshots = (List<?>) snapshot.get("elements");
+            for (int i = 0; i < batch.size(); i++) {
+                Map<String, String> assertion = batch.get(i);
+                Map<?, ?> elementSnapshot = (Map<?, ?>) elementSnapshots.get(i);
+                String type = assertion.get("type");
+                String elementId = assertion.get("element");
+                String value = ConfigManager.resolveParameters(assertion.get("value"), data);
+                String condition = assertion.get("condition");
+                logger.debug("Verifying assertion against snapshot: {} -> {}", assertion, elementSnapshot);
+                if (!type.equals("url") && !type.equals("count") && !Boolean.TRUE.equals(elementSnapshot.get("found"))) {
+                    throw new org.openqa.selenium.NoSuchElementException("No valid locator found for " + elementId + " on page " + pageId);
+                }
                 switch (type) {
                     case "url":
-                        String currentUrl = driver.getCurrentUrl();
-                        assertCondition(currentUrl, value, condition, "URL");
+                        assertCondition(snapshot.get("url"), value, condition, "URL");
                         break;
                     case "visible":
-                        WebElement element = pages.get(pageId).get(elementId);
-                        boolean isVisible = element.isDisplayed();
-                        assertCondition(isVisible, Boolean.parseBoolean(value), condition, "visibility");
+                        assertCondition(elementSnapshot.get("visible"), Boolean.parseBoolean(value), condition, "visibility");
                         break;
                     case "text":
-                        String text = pages.get(pageId).get(elementId).getText();
-                        assertCondition(text, value, condition, "text");
+                        assertCondition(elementSnapshot.get("text"), value, condition, "text");
                         break;
                     case "count":
-                        int count = driver.findElements(getLocator(pageId, elementId, null)).size();
-                        assertCondition(count, Integer.parseInt(value), condition, "count");
+                        assertCondition(((Number) elementSnapshot.get("count")).intValue(), Integer.parseInt(value), condition, "count");
                         break;
                     case "enabled":
-                        boolean isEnabled = pages.get(pageId).get(elementId).isEnabled();
-                        assertCondition(isEnabled, Boolean.parseBoolean(value), condition, "enabled");
+                        assertCondition(elementSnapshot.get("enabled"), Boolean.parseBoolean(value), condition, "enabled");
                         break;
                     case "attribute":
-                        String attr = assertion.get("attributeName");
-                        String attrValue = pages.get(pageId).get(elementId).getAttribute(attr);
-                        assertCondition(attrValue, value, condition, "attribute " + attr);
+                        assertCondition(elementSnapshot.get("attribute"), value, condition, "attribute " + assertion.get("attributeName"));
                         break;
                     default:
                         throw new IllegalArgumentException("Unsupported assertion: " + type);
                 }
-            });
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Map<?, ?> elementSnapshot = (Map<?, ?>) elementSnapshots.get(i);
+                if (Boolean.TRUE.equals(elementSnapshot.get("found"))) {
+                    List<Map<String, String>> locators = batchLocators.get(i);
+                    List<String> matchedIndices = ((List<?>) elementSnapshot.get("matched")).stream()
+                            .map(position -> locators.get(((Number) position).intValue()).get("index"))
+                            .toList();
+                    locatorStats.record(pageId, batch.get(i).get("element"), matchedIndices, matchedIndices.get(0));
+                }
+            }
+        });
+    }
+
+    private boolean allElementsFound(List<Map<String, String>> batch, List<?> elementSnapshots) {
+        for (int i = 0; i < batch.size(); i++) {
+            String type = batch.get(i).get("type");
+            if (!type.equals("url") && !type.equals("count")
+                    && !Boolean.TRUE.equals(((Map<?, ?>) elementSnapshots.get(i)).get("found"))) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    private void executeAssertion(Map<String, String> assertion, Map<String, String> data) {
+        String pageId = assertion.get("page");
+        String type = assertion.get("type");
+        String value = ConfigManager.resolveParameters(assertion.get("value"), data);
+        String elementId = assertion.getOrDefault("element", null);
+        String condition = assertion.get("condition");
+
+        String assertionDescription = String.format("Assertion '%s' on page '%s'%s with expected value '%s' and condition '%s'",
+                type, pageId != null ? pageId : "N/A",
+                elementId != null ? ", element '" + elementId + "'" : "",
+                value, condition);
+
+        executeWithRetry(assertionDescription, () -> {
+            logger.debug("Verifying assertion: {}", assertion);
+            applyWait(assertion, pageId, elementId, data);
+
+            // Reload page elements before assertion to avoid staleness
+            if (elementId != null && pageId != null) {
+                loadPageElements(pageId, assertion);
+            }
+
+            switch (type) {
+                case "url":
+                    String currentUrl = driver.getCurrentUrl();
+                    assertCondition(currentUrl, value, condition, "URL");
+                    break;
+                case "visible":
+                    WebElement element = pages.get(pageId).get(elementId);
+                    boolean isVisible = element.isDisplayed();
+                    assertCondition(isVisible, Boolean.parseBoolean(value), condition, "visibility");
+                    break;
+                case "text":
+                    String text = pages.get(pageId).get(elementId).getText();
+                    assertCondition(text, value, condition, "text");
+                    break;
+                case "count":
+                    int count = driver.findElements(getLocator(pageId, elementId, null)).size();
+                    assertCondition(count, Integer.parseInt(value), condition, "count");
+                    break;
+                case "enabled":
+                    boolean isEnabled = pages.get(pageId).get(elementId).isEnabled();
+                    assertCondition(isEnabled, Boolean.parseBoolean(value), condition, "enabled");
+                    break;
+                case "attribute":
+                    String attr = assertion.get("attributeName");
+                    String attrValue = pages.get(pageId).get(elementId).getAttribute(attr);
+                    assertCondition(attrValue, value, condition, "attribute " + attr);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported assertion: " + type);
+            }
+        });
     }
 
     private void loadPageElements(String pageId, Map<String, String> params) {
         Map<String, Map<String, String>> elements = ConfigManager.getPageElements(pageId);
         Map<String, WebElement> pageElements = new HashMap<>();
+        LocatorStats locatorStats = LocatorStats.getInstance();
         elements.forEach((id, props) -> {
-            List<Map<String, String>> locators = ConfigManager.getElementLocators(pageId, id, params);
-            WebElement element = null;
-            for (Map<String, String> locator : locators) {
-                try {
-                    By by = getLocator(locator);
-                    Awaitility.await()
-                            .atMost(Duration.ofSeconds(getTimeout(null)))
-                            .until(() -> {
-                                List<WebElement> foundElements = driver.findElements(by);
-                                logger.debug("Found {} elements for locator {} on page {}", foundElements.size(), by, pageId);
-                                return foundElements.size() > 0;
-                            });
-                    element = driver.findElement(by);
-                    break;
-                } catch (Exception e) {
-                    logger.warn("Failed to find element {} with locator {}, trying next", id, locator, e);
-                    continue;
-                }
-            }
-            if (element == null) {
-                throw new org.openqa.selenium.NoSuchElementException("No valid locator found for " + id);
+            List<Map<String, String>> locators = locatorStats.order(pageId, id, ConfigManager.getElementLocators(pageId, id, params));
+            List<List<String>> locatorArgs = locators.stream()
+                    .map(locator -> List.of(locator.get("type"), locator.get("value")))
+                    .toList();
+            // All fallback locators are tried in one query per poll instead of waiting out each one in turn
+            AtomicReference<List<?>> match = new AtomicReference<>();
+            try {
+                Awaitility.await()
+                        .atMost(Duration.ofSeconds(getTimeout(null)))
+                        .until(() -> {
+                            match.set((List<?>) ((JavascriptExecutor) driver).executeScript(BrowserScripts.FIND_FIRST, locatorArgs));
+                            return match.get() != null;
+                        });
+            } catch (org.awaitility.core.ConditionTimeoutException e) {
+                throw new org.openqa.selenium.NoSuchElementException("No valid locator found for " + id + " on page " + pageId + ": " + locators);
             }
-            pageElements.put(id, element);
+            List<String> matchedIndices = ((List<?>) match.get().get(1)).stream()
+                    .map(position -> locators.get(((Number) position).intValue()).get("index"))
+                    .toList();
+            locatorStats.record(pageId, id, matchedIndices, matchedIndices.get(0));
+            logger.debug("Found element {} on page {} with locator index {} (matching: {})", id, pageId, matchedIndices.get(0), matchedIndices);
+            pageElements.put(id, (WebElement) match.get().get(0));
         });
         pages.put(pageId, pageElements);
     }
 
+    @AfterAll
+    public static void saveLocatorStats() {
+        LocatorStats.getInstance().save();
+    }
+
+    @AfterAll
+    public static void reportRestReplay() {
+        RestCassette.getInstance().report();
+    }
+
     private By getLocator(String pageId, String elementId, Map<String, String> params) {
+        // Counts and waits always use the configured primary locator; the learned order is only for finding one element
         List<Map<String, String>> locators = ConfigManager.getElementLocators(pageId, elementId, params);
         return getLocator(locators.get(0));
     }
@@ -662,7 +932,7 @@ public class GenericSteps {
         }
     }
 
-    private void executeWithRetry(String stepDescription, Runnable action) {
+    void executeWithRetry(String stepDescription, Runnable action) {
         AtomicReference<Throwable> lastException = new AtomicReference<>();
         logger.info("Attempting step: {}", stepDescription);
         try {
@@ -680,14 +950,11 @@ public class GenericSteps {
                             action.run();
                             logger.debug("Step succeeded: {}", stepDescription);
                             return true;
+                        } catch (RestCassette.MissingRecordingException e) {
+                            throw e; // Fails at once, a recording cannot appear by retrying
                         } catch (UnreachableBrowserException e) {
                             logger.warn("Browser unreachable during step '{}', reinitializing driver", stepDescription, e);
-                            ChromeOptions options = new ChromeOptions();
-                            String chromeArgs = ConfigManager.getConfig("webdriver.chrome.args");
-                            if (chromeArgs != null && !chromeArgs.isEmpty()) {
-                                options.addArguments(chromeArgs.split(","));
-                            }
-                            initializeDriver(options);
+                            initializeDriver();
                             throw e; // Trigger retry
                         } catch (Throwable e) {
                             lastException.set(e);
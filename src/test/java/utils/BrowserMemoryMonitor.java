@@ -0,0 +1,140 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Samples the browser's JS heap and DOM node count between data rows and decides when a long-running
+ * driver session should be recycled. Thresholds come from {@code browser.recycle.*} in the environment
+ * config and can be overridden per test with {@code <testId>.recycle.*}.
+ */
+public class BrowserMemoryMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserMemoryMonitor.class);
+    private static final String MEMORY_SCRIPT =
+            "return [performance.memory ? performance.memory.usedJSHeapSize : -1,"
+            + " document.getElementsByTagName('*').length];";
+
+    private final long maxHeapBytes;
+    private final long maxDomNodes;
+    private final double slowdownFactor;
+    private final int baselineIterations;
+    private final List<Long> iterationMillis = new ArrayList<>();
+    private boolean cdpEnabled;
+
+    private BrowserMemoryMonitor(long maxHeapBytes, long maxDomNodes, double slowdownFactor, int baselineIterations) {
+        this.maxHeapBytes = maxHeapBytes;
+        this.maxDomNodes = maxDomNodes;
+        this.slowdownFactor = slowdownFactor;
+        this.baselineIterations = baselineIterations;
+    }
+
+    /**
+     * Returns a monitor for the given test, or {@code null} when adaptive recycling is disabled.
+     */
+    public static BrowserMemoryMonitor fromConfig(String testId) {
+        if (!Boolean.parseBoolean(getSetting(testId, "enabled", "false"))) {
+            return null;
+        }
+        long maxHeapMb = Long.parseLong(getSetting(testId, "maxHeapMb", "0"));
+        long maxDomNodes = Long.parseLong(getSetting(testId, "maxDomNodes", "0"));
+        double slowdownFactor = Double.parseDouble(getSetting(testId, "slowdownFactor", "0"));
+        int baselineIterations = Integer.parseInt(getSetting(testId, "baselineIterations", "3"));
+        logger.debug("Adaptive driver recycling for test {}: maxHeapMb={}, maxDomNodes={}, slowdownFactor={}, baselineIterations={}",
+                testId, maxHeapMb, maxDomNodes, slowdownFactor, baselineIterations);
+        return new BrowserMemoryMonitor(maxHeapMb * 1024 * 1024, maxDomNodes, slowdownFactor, baselineIterations);
+    }
+
+    /**
+     * Reads {@code test.<id>.recycle.<key>} from the test data, then {@code <id>.recycle.<key>} and finally
+     * {@code browser.recycle.<key>} from the config.
+     */
+    private static String getSetting(String testId, String key, String defaultValue) {
+        String value = ConfigManager.getTestProperty(testId, "recycle." + key);
+        if (value == null) {
+            value = ConfigManager.getConfig(testId + ".recycle." + key);
+        }
+        if (value == null) {
+            value = ConfigManager.getConfig("browser.recycle." + key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Records the duration of the iteration that just finished, samples the browser and returns the reason
+     * the driver should be recycled, or {@code null} if it can keep running.
+     */
+    public String checkRecycle(WebDriver driver, long durationMillis) {
+        iterationMillis.add(durationMillis);
+        long[] sample = sample(driver);
+        if (sample != null) {
+            logger.debug("Browser memory sample: jsHeap={} bytes, domNodes={}, iteration={} ms", sample[0], sample[1], durationMillis);
+            if (maxHeapBytes > 0 && sample[0] > maxHeapBytes) {
+                return String.format("JS heap %d MB exceeds limit of %d MB", sample[0] / (1024 * 1024), maxHeapBytes / (1024 * 1024));
+            }
+            if (maxDomNodes > 0 && sample[1] > maxDomNodes) {
+                return String.format("DOM node count %d exceeds limit of %d", sample[1], maxDomNodes);
+            }
+        }
+        if (slowdownFactor > 0 && iterationMillis.size() >= baselineIterations * 2) {
+            double baseline = average(iterationMillis.subList(0, baselineIterations));
+            double recent = average(iterationMillis.subList(iterationMillis.size() - baselineIterations, iterationMillis.size()));
+            if (baseline > 0 && recent > baseline * slowdownFactor) {
+                return String.format("iterations slowed down from %.0f ms to %.0f ms (limit %.1fx)", baseline, recent, slowdownFactor);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clears the duration baseline; call after the driver has been replaced.
+     */
+    public void reset() {
+        iterationMillis.clear();
+        cdpEnabled = false;
+    }
+
+    private long[] sample(WebDriver driver) {
+        if (driver instanceof ChromiumDriver chromiumDriver) {
+            try {
+                if (!cdpEnabled) {
+                    chromiumDriver.executeCdpCommand("Performance.enable", Collections.emptyMap());
+                    cdpEnabled = true;
+                }
+                Map<String, Object> result = chromiumDriver.executeCdpCommand("Performance.getMetrics", Collections.emptyMap());
+                long heap = -1;
+                long nodes = -1;
+                for (Object entry : (List<?>) result.get("metrics")) {
+                    Map<?, ?> metric = (Map<?, ?>) entry;
+                    if ("JSHeapUsedSize".equals(metric.get("name"))) {
+                        heap = ((Number) metric.get("value")).longValue();
+                    } else if ("Nodes".equals(metric.get("name"))) {
+                        nodes = ((Number) metric.get("value")).longValue();
+                    }
+                }
+                return new long[]{heap, nodes};
+            } catch (Exception e) {
+                logger.debug("CDP performance metrics unavailable, falling back to performance.memory", e);
+            }
+        }
+        try {
+            List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(MEMORY_SCRIPT);
+            return new long[]{((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue()};
+        } catch (Exception e) {
+            logger.warn("Failed to sample browser memory", e);
+            return null;
+        }
+    }
+
+    private static double average(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).average().orElse(0);
+    }
+}
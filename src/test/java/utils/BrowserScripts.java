@@ -0,0 +1,91 @@
+package utils;
+
+/**
+ * JavaScript executed in the browser to resolve locators and read element state in a single round trip.
+ * Locators are passed as {@code [type, value]} pairs using the same types as {@code pages.properties}.
+ */
+public final class BrowserScripts {
+
+    private static final String LOCATE_FUNCTION = String.join("\n",
+            "function locate(type, value) {",
+            "  switch (type) {",
+            "    case 'id': return document.getElementById(value);",
+            "    case 'class': return document.getElementsByClassName(value)[0] || null;",
+            "    case 'css': return document.querySelector(value);",
+            "    case 'name': return document.getElementsByName(value)[0] || null;",
+            "    case 'tag': return document.getElementsByTagName(value)[0] || null;",
+            "    case 'xpath': return document.evaluate(value, document, null,",
+            "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  }",
+            "  return null;",
+            "}",
+            "function locateFirst(locators) {",
+            "  var first = null, matched = [];",
+            "  for (var i = 0; i < locators.length; i++) {",
+            "    var found = null;",
+            "    try { found = locate(locators[i][0], locators[i][1]); } catch (e) { }",
+            "    if (found) { matched.push(i); if (first === null) { first = found; } }",
+            "  }",
+            "  return first === null ? null : [first, matched];",
+            "}");
+
+    /**
+     * Takes a list of locators as {@code arguments[0]} and returns {@code null} if none matches, otherwise the
+     * element of the first matching locator and the positions of all locators that matched.
+     */
+    public static final String FIND_FIRST = LOCATE_FUNCTION + "\nreturn locateFirst(arguments[0]);";
+
+    /**
+     * Takes a list of element requests as {@code arguments[0]}, each with optional {@code locators} (fallback list),
+     * {@code count} (a single locator whose matches are counted) and {@code attribute} (name to read), and returns
+     * the page URL plus one snapshot per request with {@code found}, {@code matched}, {@code visible}, {@code text},
+     * {@code enabled}, {@code attribute} and {@code count}. Visibility and text approximate WebDriver's
+     * {@code isDisplayed()} and {@code getText()}.
+     */
+    public static final String SNAPSHOT = LOCATE_FUNCTION + "\n" + String.join("\n",
+            "function countAll(type, value) {",
+            "  switch (type) {",
+            "    case 'id': return document.querySelectorAll('#' + CSS.escape(value)).length;",
+            "    case 'class': return document.getElementsByClassName(value).length;",
+            "    case 'css': return document.querySelectorAll(value).length;",
+            "    case 'name': return document.getElementsByName(value).length;",
+            "    case 'tag': return document.getElementsByTagName(value).length;",
+            "    case 'xpath': return document.evaluate(value, document, null,",
+            "        XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;",
+            "  }",
+            "  return 0;",
+            "}",
+            "function isVisible(el) {",
+            "  var style = window.getComputedStyle(el);",
+            "  return !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length)",
+            "      && style.visibility !== 'hidden' && style.opacity !== '0';",
+            "}",
+            "function readAttribute(el, name) {",
+            "  var value = el[name];",
+            "  if (typeof value === 'boolean') { return value ? 'true' : null; }",
+            "  if (value === undefined || value === null || typeof value === 'object' || typeof value === 'function') {",
+            "    return el.getAttribute(name);",
+            "  }",
+            "  return String(value);",
+            "}",
+            "var snapshots = [];",
+            "arguments[0].forEach(function (request) {",
+            "  var snapshot = { found: false };",
+            "  if (request.count) { snapshot.count = countAll(request.count[0], request.count[1]); }",
+            "  var match = request.locators ? locateFirst(request.locators) : null;",
+            "  if (match) {",
+            "    var el = match[0];",
+            "    snapshot.found = true;",
+            "    snapshot.matched = match[1];",
+            "    snapshot.visible = isVisible(el);",
+            "    snapshot.text = snapshot.visible ? (el.innerText || '').trim() : '';",
+            "    snapshot.enabled = !el.disabled;",
+            "    if (request.attribute) { snapshot.attribute = readAttribute(el, request.attribute); }",
+            "  }",
+            "  snapshots.push(snapshot);",
+            "});",
+            "return { url: window.location.href, elements: snapshots };");
+
+    private BrowserScripts() {
+    }
+}
@@ -0,0 +1,165 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Speeds up ChromeDriver cold starts. The chromedriver path and version resolved by WebDriverManager are pinned in
+ * {@code webdriver.cache.file} so later runs skip all version lookups (refresh with {@code -Dwebdriver.cache.refresh=true}),
+ * and sessions can start from a copy of a pre-built, never-modified {@code webdriver.chrome.profileTemplate} directory
+ * instead of an empty profile.
+ */
+public class ChromeDriverSetup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChromeDriverSetup.class);
+    private static boolean resolved;
+
+    /**
+     * Points Selenium at a chromedriver binary, using the cached one when it still exists. Runs once per JVM.
+     */
+    public static synchronized void resolveDriver() {
+        if (resolved) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Path cacheFile = getCacheFile();
+        Properties cache = new Properties();
+        if (Files.exists(cacheFile) && !Boolean.getBoolean("webdriver.cache.refresh")) {
+            try (InputStream input = Files.newInputStream(cacheFile)) {
+                cache.load(input);
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable chromedriver cache {}", cacheFile, e);
+            }
+        }
+        String cachedPath = cache.getProperty("path");
+        if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))) {
+            System.setProperty("webdriver.chrome.driver", cachedPath);
+            logger.info("Using cached chromedriver {} ({}) resolved in {} ms", cache.getProperty("version"), cachedPath,
+                    System.currentTimeMillis() - start);
+        } else {
+            WebDriverManager manager = WebDriverManager.chromedriver();
+            manager.setup();
+            cache.setProperty("path", manager.getDownloadedDriverPath());
+            cache.setProperty("version", String.valueOf(manager.getDownloadedDriverVersion()));
+            try {
+                Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+                try (OutputStream output = Files.newOutputStream(cacheFile)) {
+                    cache.store(output, "Resolved by WebDriverManager; delete or use -Dwebdriver.cache.refresh=true to look up again");
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to write chromedriver cache {}", cacheFile, e);
+            }
+            logger.info("Resolved chromedriver {} ({}) online in {} ms", cache.getProperty("version"), cache.getProperty("path"),
+                    System.currentTimeMillis() - start);
+        }
+        resolved = true;
+    }
+
+    /**
+     * Drops the pinned driver, e.g. after Chrome was upgraded and the cached chromedriver no longer matches.
+     * Returns whether there was a cached driver to drop.
+     */
+    public static synchronized boolean invalidateDriver() {
+        try {
+            resolved = false;
+            return Files.deleteIfExists(getCacheFile());
+        } catch (IOException e) {
+            logger.warn("Failed to delete chromedriver cache {}", getCacheFile(), e);
+            return false;
+        }
+    }
+
+    private static Path getCacheFile() {
+        String cacheFile = ConfigManager.getConfig("webdriver.cache.file");
+        return Paths.get(cacheFile != null ? cacheFile.trim() : ".webdriver/chromedriver.properties");
+    }
+
+    /**
+     * Copies the profile template into a fresh directory for one session, building the template with a throwaway
+     * session first if it does not exist yet. Returns {@code null} when no template is configured.
+     */
+    public static Path createProfile(ChromeOptions options) {
+        String templateProp = ConfigManager.getConfig("webdriver.chrome.profileTemplate");
+        if (templateProp == null || templateProp.isBlank()) {
+            return null;
+        }
+        Path template = Paths.get(templateProp.trim()).toAbsolutePath();
+        try {
+            buildTemplate(template, options);
+            Path profile = Files.createTempDirectory("chrome-profile-");
+            try (Stream<Path> files = Files.walk(template)) {
+                for (Path source : (Iterable<Path>) files::iterator) {
+                    // Lock files of the session that built the template must not be carried over
+                    if (Files.isSymbolicLink(source) || source.getFileName().toString().startsWith("Singleton")) {
+                        continue;
+                    }
+                    Path target = profile.resolve(template.relativize(source).toString());
+                    if (Files.isDirectory(source)) {
+                        Files.createDirectories(target);
+                    } else {
+                        Files.copy(source, target);
+                    }
+                }
+            }
+            return profile;
+        } catch (IOException | WebDriverException e) {
+            logger.warn("Failed to prepare Chrome profile template {}, starting with a new profile", template, e);
+            return null;
+        }
+    }
+
+    private static synchronized void buildTemplate(Path template, ChromeOptions options) throws IOException {
+        if (Files.isDirectory(template)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        // Built next to the template and renamed into place, so a failed build never leaves a half-made template
+        Files.createDirectories(template.getParent());
+        Path building = Files.createTempDirectory(template.getParent(), template.getFileName() + ".building-");
+        try {
+            WebDriver templateDriver = new ChromeDriver(new ChromeOptions().merge(options)
+                    .addArguments("--user-data-dir=" + building));
+            templateDriver.quit();
+            try {
+                Files.move(building, template, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                logger.debug("Chrome profile template {} was built by another process", template);
+            }
+        } finally {
+            deleteProfile(building);
+        }
+        logger.info("Built Chrome profile template {} in {} ms", template, System.currentTimeMillis() - start);
+    }
+
+    public static void deleteProfile(Path profile) {
+        if (profile == null || !Files.exists(profile)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(profile)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete Chrome profile {}", profile, e);
+        }
+    }
+}
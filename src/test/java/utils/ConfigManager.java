@@ -1,7 +1,10 @@
 package utils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -27,12 +30,23 @@ public class ConfigManager {
 
     static {
         loadProperties("config." + ENV + ".properties", configProps);
-        loadProperties("pages/pages.properties", pageProps);
-        loadProperties("testdata/tests.properties", testProps);
+        loadProperties(System.getProperty("pages.file", "pages/pages.properties"), pageProps);
+        loadProperties(System.getProperty("testdata.file", "testdata/tests.properties"), testProps);
+    }
+
+    /**
+     * Opens a classpath resource, or the file of that name when there is no such resource.
+     */
+    private static InputStream openResource(String fileName) throws IOException {
+        InputStream input = ConfigManager.class.getClassLoader().getResourceAsStream(fileName);
+        if (input == null && Files.isRegularFile(Paths.get(fileName))) {
+            return Files.newInputStream(Paths.get(fileName));
+        }
+        return input;
     }
 
     private static void loadProperties(String fileName, Properties props) {
-        try (InputStream input = ConfigManager.class.getClassLoader().getResourceAsStream(fileName)) {
+        try (InputStream input = openResource(fileName)) {
             if (input != null) {
                 props.load(input);
             }
@@ -88,6 +102,14 @@ public class ConfigManager {
         return locators;
     }
 
+    public static String getTestProperty(String testId, String key) {
+        return testProps.getProperty("test." + testId + "." + key);
+    }
+
+    public static String getDataGeneratorProperty(String name, String key) {
+        return testProps.getProperty("datagen." + name + "." + key);
+    }
+
     public static List<Map<String, String>> getTestActions(String testId) {
         return getIndexedProperties(testId, "actions");
     }
@@ -125,7 +147,9 @@ public class ConfigManager {
             return null;
         }
 
-        if (dataFile.endsWith(".csv")) {
+        if (dataFile.startsWith("gen:")) {
+            return DataGenerator.fromSpec(dataFile.substring(4).trim());
+        } else if (dataFile.endsWith(".csv")) {
             return readCsvData(dataFile);
         } else if (dataFile.endsWith(".json")) {
             return readJsonData(dataFile);
@@ -135,8 +159,7 @@ public class ConfigManager {
 
     private static List<Map<String, String>> readCsvData(String fileName) {
         List<Map<String, String>> data = new ArrayList<>();
-        try (CSVReader reader = new CSVReader(new InputStreamReader(
-                ConfigManager.class.getClassLoader().getResourceAsStream(fileName)))) {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(openResource(fileName)))) {
             String[] headers = reader.readNext();
             String[] line;
             while ((line = reader.readNext()) != null) {
@@ -153,7 +176,7 @@ public class ConfigManager {
     }
 
     private static List<Map<String, String>> readJsonData(String fileName) {
-        try (InputStream input = ConfigManager.class.getClassLoader().getResourceAsStream(fileName)) {
+        try (InputStream input = openResource(fileName)) {
             ObjectMapper mapper = new ObjectMapper();
             return Arrays.asList(mapper.readValue(input, Map[].class));
         } catch (Exception e) {
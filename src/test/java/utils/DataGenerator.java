@@ -0,0 +1,150 @@
+package utils;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Synthetic data rows for {@code test.<id>.dataFile=gen:<name>?count=<rows>&seed=<seed>}. The columns are listed in
+ * {@code datagen.<name>.columns} and each one is defined by {@code datagen.<name>.<column>} in tests.properties:
+ * <ul>
+ *   <li>{@code seq(start[,step])} - {@code start + row * step}</li>
+ *   <li>{@code pattern(user-??##)} - {@code #} is a digit, {@code ?} a lowercase letter, {@code *} either, anything else literal</li>
+ *   <li>{@code pick(admin|editor|viewer)} - one of the listed values</li>
+ *   <li>{@code template(${data.username}@example.com)} - resolved against the earlier columns of the row and {@code ${param.*}}</li>
+ *   <li>any other value - a constant</li>
+ * </ul>
+ * Rows are built on access rather than held in memory, and row {@code i} depends only on the seed, {@code i} and its
+ * column definition, so any single row (or a shard's subset of rows) is reproduced exactly.
+ */
+public class DataGenerator extends AbstractList<Map<String, String>> {
+
+    private static final Pattern FUNCTION = Pattern.compile("(\\w+)\\((.*)\\)", Pattern.DOTALL);
+    private static final String DIGITS = "0123456789";
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int count;
+    private final long seed;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<Long> columnSalts = new ArrayList<>();
+    private final List<Column> columns = new ArrayList<>();
+
+    private interface Column {
+        String generate(int row, SplittableRandom random, Map<String, String> values);
+    }
+
+    private DataGenerator(int count, long seed) {
+        this.count = count;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates the generator for a {@code <name>?count=<rows>&seed=<seed>} spec (the part after {@code gen:}).
+     * {@code count} and {@code seed} fall back to {@code datagen.<name>.count} and {@code datagen.<name>.seed}.
+     */
+    public static DataGenerator fromSpec(String spec) {
+        int query = spec.indexOf('?');
+        String name = (query >= 0 ? spec.substring(0, query) : spec).trim();
+        Map<String, String> options = new HashMap<>();
+        if (query >= 0) {
+            for (String option : spec.substring(query + 1).split("&")) {
+                int separator = option.indexOf('=');
+                if (separator > 0) {
+                    options.put(option.substring(0, separator).trim(), option.substring(separator + 1).trim());
+                }
+            }
+        }
+        String count = options.getOrDefault("count", ConfigManager.getDataGeneratorProperty(name, "count"));
+        String seed = options.getOrDefault("seed", ConfigManager.getDataGeneratorProperty(name, "seed"));
+        String columnNames = ConfigManager.getDataGeneratorProperty(name, "columns");
+        if (count == null || columnNames == null) {
+            throw new IllegalArgumentException("Data generator " + name + " needs a count and datagen." + name + ".columns: gen:" + spec);
+        }
+
+        DataGenerator generator = new DataGenerator(Integer.parseInt(count.trim()), seed != null ? Long.parseLong(seed.trim()) : 0);
+        for (String columnName : columnNames.split(",")) {
+            columnName = columnName.trim();
+            String definition = ConfigManager.getDataGeneratorProperty(name, columnName);
+            if (definition == null) {
+                throw new IllegalArgumentException("Missing column definition datagen." + name + "." + columnName);
+            }
+            generator.columnNames.add(columnName);
+            // Salting by name keeps a column's values stable when other columns are added or reordered
+            generator.columnSalts.add(mix(columnName.hashCode()));
+            generator.columns.add(parseColumn(definition.trim()));
+        }
+        return generator;
+    }
+
+    private static Column parseColumn(String definition) {
+        Matcher matcher = FUNCTION.matcher(definition);
+        if (!matcher.matches()) {
+            return (row, random, values) -> definition;
+        }
+        String argument = matcher.group(2);
+        switch (matcher.group(1)) {
+            case "seq": {
+                String[] parts = argument.split(",");
+                long start = Long.parseLong(parts[0].trim());
+                long step = parts.length > 1 ? Long.parseLong(parts[1].trim()) : 1;
+                return (row, random, values) -> String.valueOf(start + row * step);
+            }
+            case "pattern":
+                return (row, random, values) -> {
+                    StringBuilder value = new StringBuilder(argument.length());
+                    for (char c : argument.toCharArray()) {
+                        switch (c) {
+                            case '#' -> value.append(DIGITS.charAt(random.nextInt(DIGITS.length())));
+                            case '?' -> value.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+                            case '*' -> {
+                                int index = random.nextInt(DIGITS.length() + LETTERS.length());
+                                value.append(index < DIGITS.length() ? DIGITS.charAt(index) : LETTERS.charAt(index - DIGITS.length()));
+                            }
+                            default -> value.append(c);
+                        }
+                    }
+                    return value.toString();
+                };
+            case "pick": {
+                String[] choices = Arrays.stream(argument.split("\\|")).map(String::trim).toArray(String[]::new);
+                return (row, random, values) -> choices[random.nextInt(choices.length)];
+            }
+            case "template":
+                return (row, random, values) -> ConfigManager.resolveParameters(argument, values);
+            default:
+                throw new IllegalArgumentException("Unsupported data generator column: " + definition);
+        }
+    }
+
+    @Override
+    public Map<String, String> get(int row) {
+        Objects.checkIndex(row, count);
+        long rowSeed = mix(seed * GOLDEN_GAMMA + row);
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            SplittableRandom random = new SplittableRandom(rowSeed ^ columnSalts.get(i));
+            values.put(columnNames.get(i), columns.get(i).generate(row, random, values));
+        }
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,111 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates one scenario per test id in {@code tests.properties}, so every configured test runs and Cucumber
+ * schedules each one independently. Data-driven tests with a {@code rowChunkSize} get one scenario per chunk of
+ * rows. Scenarios are tagged {@code @generated}, {@code @<testId>} and any {@code test.<id>.tags}.
+ */
+public class FeatureGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureGenerator.class);
+    private static final Pattern CHUNK_NAME = Pattern.compile("(.+) rows (\\d+)-(\\d+)");
+
+    public static Path generate(Path output) throws IOException {
+        StringBuilder feature = new StringBuilder("Feature: Generic Application Testing\n");
+        int scenarios = 0;
+        for (String testId : new TreeSet<>(ConfigManager.getTestIds())) {
+            String tags = "@generated @" + testId + formatTags(ConfigManager.getTestProperty(testId, "tags"));
+            String description = ConfigManager.getTestProperty(testId, "description");
+            String initialPage = ConfigManager.getTestProperty(testId, "initialPage");
+            if (initialPage == null) {
+                initialPage = ConfigManager.getTestProperty(testId, "startPage");
+            }
+
+            List<Map<String, String>> testData = ConfigManager.getTestData(testId);
+            int chunkSize = getChunkSize(testId);
+            if (testData == null || chunkSize <= 0 || testData.size() <= chunkSize) {
+                appendScenario(feature, tags, testId, description, initialPage, "\"" + testId + "\"");
+                scenarios++;
+                continue;
+            }
+            for (int from = 0; from < testData.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, testData.size()) - 1;
+                appendScenario(feature, tags, scenarioName(testId, from, to), description, initialPage,
+                        "\"" + testId + "\" rows " + from + " to " + to);
+                scenarios++;
+            }
+        }
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, feature);
+        logger.info("Generated {} scenarios for {} test ids into {}", scenarios, ConfigManager.getTestIds().size(), output);
+        return output;
+    }
+
+    private static void appendScenario(StringBuilder feature, String tags, String name, String description,
+                                       String initialPage, String testReference) {
+        feature.append("\n  ").append(tags).append("\n");
+        feature.append("  Scenario: ").append(name).append("\n");
+        if (description != null) {
+            feature.append("    ").append(description.trim()).append("\n\n");
+        }
+        if (initialPage != null) {
+            feature.append("    Given user is on the \"").append(initialPage.trim()).append("\" page\n");
+        }
+        feature.append("    When user executes test ").append(testReference).append("\n");
+        feature.append("    Then results match expected outcomes for test ").append(testReference).append("\n");
+    }
+
+    private static String formatTags(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return "";
+        }
+        List<String> formatted = new ArrayList<>();
+        for (String tag : tags.split(",")) {
+            if (!tag.isBlank()) {
+                formatted.add(tag.trim().startsWith("@") ? tag.trim() : "@" + tag.trim());
+            }
+        }
+        return " " + String.join(" ", formatted);
+    }
+
+    private static int getChunkSize(String testId) {
+        String chunkSize = ConfigManager.getTestProperty(testId, "rowChunkSize");
+        if (chunkSize == null) {
+            chunkSize = ConfigManager.getConfig("features.rowChunkSize");
+        }
+        return chunkSize != null ? Integer.parseInt(chunkSize.trim()) : 0;
+    }
+
+    public static String scenarioName(String testId, int fromRow, int toRow) {
+        return testId + " rows " + fromRow + "-" + toRow;
+    }
+
+    /**
+     * Returns the test id of a generated scenario name, which is the name itself for unchunked tests.
+     */
+    public static String getTestId(String scenarioName) {
+        Matcher matcher = CHUNK_NAME.matcher(scenarioName);
+        return matcher.matches() ? matcher.group(1) : scenarioName;
+    }
+
+    /**
+     * Returns the inclusive {@code [from, to]} row range of a chunk scenario name, or {@code null}.
+     */
+    public static int[] getRowRange(String scenarioName) {
+        Matcher matcher = CHUNK_NAME.matcher(scenarioName);
+        return matcher.matches() ? new int[]{Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3))} : null;
+    }
+}
@@ -0,0 +1,146 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persisted per-element statistics of which fallback locators matched, used to try the winning locator first in
+ * later runs and to report locators that never match. Counts are kept as {@code <page>.<element>.resolved} and
+ * {@code <page>.<element>.locator[i].matched|won} in {@code locator.stats.file}; each run adds its counts to the
+ * file on save, so parallel processes don't overwrite each other.
+ */
+public class LocatorStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocatorStats.class);
+    private static LocatorStats instance;
+
+    private final Path file;
+    private final Map<String, Long> counts = new TreeMap<>();
+    private final Map<String, Long> deltas = new TreeMap<>();
+
+    private LocatorStats(Path file) {
+        this.file = file;
+    }
+
+    public static synchronized LocatorStats getInstance() {
+        if (instance == null) {
+            String fileName = ConfigManager.getConfig("locator.stats.file");
+            instance = new LocatorStats(Paths.get(fileName != null ? fileName.trim() : ".test-history/locator-stats.properties"));
+            instance.counts.putAll(read(instance.file));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the locators ordered by how often they won before, keeping the configured order for ties.
+     */
+    public synchronized List<Map<String, String>> order(String page, String element, List<Map<String, String>> locators) {
+        List<Map<String, String>> ordered = new ArrayList<>(locators);
+        ordered.sort(Comparator.comparingLong((Map<String, String> locator) ->
+                counts.getOrDefault(key(page, element, locator.get("index"), "won"), 0L)).reversed());
+        return ordered;
+    }
+
+    public synchronized void record(String page, String element, List<String> matchedIndices, String winningIndex) {
+        increment(page + "." + element + ".resolved");
+        matchedIndices.forEach(index -> increment(key(page, element, index, "matched")));
+        increment(key(page, element, winningIndex, "won"));
+    }
+
+    private void increment(String key) {
+        counts.merge(key, 1L, Long::sum);
+        deltas.merge(key, 1L, Long::sum);
+    }
+
+    private static String key(String page, String element, String index, String counter) {
+        return page + "." + element + ".locator[" + index + "]." + counter;
+    }
+
+    /**
+     * Adds this run's counts to the statistics file and logs locators that have never matched.
+     */
+    public synchronized void save() {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                Map<String, Long> merged = read(file);
+                deltas.forEach((key, delta) -> merged.merge(key, delta, Long::sum));
+                Properties props = new Properties();
+                merged.forEach((key, value) -> props.setProperty(key, String.valueOf(value)));
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (OutputStream output = Files.newOutputStream(temp)) {
+                    props.store(output, "Locator match statistics");
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                deltas.clear();
+                counts.clear();
+                counts.putAll(merged);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to save locator statistics to {}", file, e);
+        }
+        List<String> neverMatched = getNeverMatched();
+        if (!neverMatched.isEmpty()) {
+            logger.warn("Locators that never matched: {}", neverMatched);
+        }
+    }
+
+    /**
+     * Returns the {@code page.element.locator[i]} names of configured locators that have not matched once although
+     * their element has been resolved.
+     */
+    public synchronized List<String> getNeverMatched() {
+        List<String> neverMatched = new ArrayList<>();
+        for (String resolvedKey : new TreeSet<>(counts.keySet())) {
+            if (!resolvedKey.endsWith(".resolved")) {
+                continue;
+            }
+            String[] parts = resolvedKey.split("\\.");
+            String page = parts[0];
+            String element = parts[1];
+            for (Map<String, String> locator : ConfigManager.getElementLocators(page, element, null)) {
+                if (counts.getOrDefault(key(page, element, locator.get("index"), "matched"), 0L) == 0) {
+                    neverMatched.add(page + "." + element + ".locator[" + locator.get("index") + "]");
+                }
+            }
+        }
+        return neverMatched;
+    }
+
+    private static Map<String, Long> read(Path file) {
+        Map<String, Long> values = new TreeMap<>();
+        if (Files.exists(file)) {
+            Properties props = new Properties();
+            try (InputStream input = Files.newInputStream(file)) {
+                props.load(input);
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable locator statistics file {}", file, e);
+            }
+            props.stringPropertyNames().forEach(key -> values.put(key, Long.parseLong(props.getProperty(key).trim())));
+        }
+        return values;
+    }
+}
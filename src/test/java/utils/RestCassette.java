@@ -0,0 +1,283 @@
+package utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Record/replay store for {@code restCall} actions, selected with {@code rest.mode=live|record|replay} (or
+ * {@code -Drest.mode}). Requests are fingerprinted by method, resolved URL, body hash and the headers listed in
+ * {@code rest.fingerprint.headers}. Responses are appended to {@code responses.bin} in {@code rest.cassette.dir}
+ * with a one-line-per-request {@code index} of offsets; replay serves them from a memory-mapped copy without network.
+ * Appends and compaction hold a lock on {@code index.lock}, so parallel recording processes can share a cassette.
+ */
+public class RestCassette {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestCassette.class);
+    private static RestCassette instance;
+
+    private final String mode;
+    private final Path dataFile;
+    private final Path indexFile;
+    private final Path lockFile;
+    private final Set<String> fingerprintHeaders;
+    private final Map<String, long[]> index = new HashMap<>();
+    private final Map<String, String> mismatches = new LinkedHashMap<>();
+    private final List<Long> replayNanos = new ArrayList<>();
+    private MappedByteBuffer data;
+
+    public record RecordedResponse(int code, String contentType, byte[] body) {
+    }
+
+    /**
+     * Thrown in replay mode for a request without a recording; retrying cannot make one appear.
+     */
+    public static class MissingRecordingException extends IllegalStateException {
+        public MissingRecordingException(String message) {
+            super(message);
+        }
+    }
+
+    private RestCassette(String mode, Path dir, Set<String> fingerprintHeaders) {
+        this.mode = mode;
+        this.dataFile = dir.resolve("responses.bin");
+        this.indexFile = dir.resolve("index");
+        this.lockFile = dir.resolve("index.lock");
+        this.fingerprintHeaders = fingerprintHeaders;
+    }
+
+    public static synchronized RestCassette getInstance() {
+        if (instance == null) {
+            String mode = System.getProperty("rest.mode", ConfigManager.getConfig("rest.mode"));
+            String dir = ConfigManager.getConfig("rest.cassette.dir");
+            String headers = ConfigManager.getConfig("rest.fingerprint.headers");
+            instance = new RestCassette(mode != null ? mode.trim().toLowerCase(Locale.ROOT) : "live",
+                    Paths.get(dir != null ? dir.trim() : "src/test/resources/rest-cassette"),
+                    headers == null || headers.isBlank() ? Set.of() : Arrays.stream(headers.split(","))
+                            .map(header -> header.trim().toLowerCase(Locale.ROOT))
+                            .collect(Collectors.toSet()));
+            if (!Set.of("live", "record", "replay").contains(instance.mode)) {
+                throw new IllegalArgumentException("Unsupported rest.mode: " + instance.mode);
+            }
+            if (instance.isReplay()) {
+                instance.load();
+            }
+            logger.info("REST calls run in {} mode", instance.mode);
+        }
+        return instance;
+    }
+
+    public boolean isRecord() {
+        return mode.equals("record");
+    }
+
+    public boolean isReplay() {
+        return mode.equals("replay");
+    }
+
+    private void load() {
+        if (!Files.exists(indexFile) || !Files.exists(dataFile)) {
+            logger.warn("No recorded REST responses in {}; every replayed call will be reported as a mismatch", indexFile.getParent());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            for (String line : Files.readAllLines(indexFile)) {
+                String[] parts = line.split(" ");
+                if (parts.length >= 3) {
+                    // Later recordings of the same request win
+                    index.put(parts[0], new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+                }
+            }
+            logger.info("Loaded {} recorded REST responses from {}", index.size(), dataFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load REST cassette " + dataFile, e);
+        }
+    }
+
+    /**
+     * Returns the recorded response for the request, or fails and remembers it for the mismatch report.
+     */
+    public RecordedResponse replay(String method, String url, String body, Map<String, String> headers) {
+        long start = System.nanoTime();
+        String fingerprint = fingerprint(method, url, body, headers);
+        long[] location;
+        synchronized (this) {
+            location = index.get(fingerprint);
+            if (location == null) {
+                mismatches.put(fingerprint, method + " " + url + " " + selectHeaders(headers));
+            }
+        }
+        if (location == null) {
+            throw new MissingRecordingException("No recorded REST response for " + method + " " + url + " (fingerprint " + fingerprint + ")");
+        }
+        ByteBuffer record = data.slice((int) location[0], (int) location[1]);
+        int code = record.getInt();
+        byte[] contentType = new byte[record.getInt()];
+        record.get(contentType);
+        byte[] responseBody = new byte[record.getInt()];
+        record.get(responseBody);
+        synchronized (this) {
+            replayNanos.add(System.nanoTime() - start);
+        }
+        return new RecordedResponse(code, new String(contentType, StandardCharsets.UTF_8), responseBody);
+    }
+
+    public synchronized void record(String method, String url, String body, Map<String, String> headers, RecordedResponse response) {
+        byte[] contentType = response.contentType() != null ? response.contentType().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        ByteBuffer record = ByteBuffer.allocate(12 + contentType.length + response.body().length);
+        record.putInt(response.code()).putInt(contentType.length).put(contentType).putInt(response.body().length).put(response.body());
+        record.flip();
+        try {
+            Files.createDirectories(dataFile.getParent());
+            String fingerprint = fingerprint(method, url, body, headers);
+            // Parallel recording processes must not interleave a data append with another one's index line
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = lockChannel.lock()) {
+                long offset;
+                try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    offset = channel.size();
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                }
+                Files.writeString(indexFile, fingerprint + " " + offset + " " + record.limit() + " " + method + " " + url + "\n",
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            logger.debug("Recorded REST {} {} -> {} ({} bytes)", method, url, response.code(), response.body().length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record REST response for " + url, e);
+        }
+    }
+
+    /**
+     * Compacts the cassette after a record run, or writes unmatched replay requests to
+     * {@code target/rest-replay-mismatches.txt} and logs replay latency after a replay run.
+     */
+    public synchronized void report() {
+        if (isRecord()) {
+            compact();
+        }
+        if (!isReplay()) {
+            return;
+        }
+        if (!replayNanos.isEmpty()) {
+            long[] sorted = replayNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            logger.info("Replayed {} REST calls: mean {} us, p50 {} us, p99 {} us, max {} us", sorted.length,
+                    Arrays.stream(sorted).sum() / sorted.length / 1000, sorted[sorted.length / 2] / 1000,
+                    sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)] / 1000,
+                    sorted[sorted.length - 1] / 1000);
+        }
+        if (!mismatches.isEmpty()) {
+            Path report = Paths.get("target", "rest-replay-mismatches.txt");
+            try {
+                Files.createDirectories(report.getParent());
+                Files.write(report, mismatches.entrySet().stream().map(e -> e.getKey() + " " + e.getValue()).toList());
+            } catch (IOException e) {
+                logger.warn("Failed to write REST mismatch report {}", report, e);
+            }
+            logger.warn("{} REST requests had no recorded response (see {}): {}", mismatches.size(), report, mismatches.values());
+        }
+    }
+
+    /**
+     * Rewrites the data file and index with only the latest recording of each request, so re-recording does not
+     * grow the cassette.
+     */
+    private void compact() {
+        if (!Files.exists(indexFile) || !Files.exists(dataFile)) {
+            return;
+        }
+        // Other processes still recording into the cassette wait until it has been rewritten
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockChannel.lock()) {
+            List<String> lines = Files.readAllLines(indexFile);
+            Map<String, String> latest = new LinkedHashMap<>();
+            for (String line : lines) {
+                String[] parts = line.split(" ");
+                if (parts.length >= 3) {
+                    // Re-inserting moves a re-recorded request to the position of its latest recording
+                    latest.remove(parts[0]);
+                    latest.put(parts[0], line);
+                }
+            }
+            if (latest.size() == lines.size()) {
+                return;
+            }
+            Path compactData = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+            Path compactIndex = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+            StringBuilder index = new StringBuilder();
+            try (FileChannel source = FileChannel.open(dataFile, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(compactData, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                         StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (String line : latest.values()) {
+                    String[] parts = line.split(" ", 4);
+                    long offset = Long.parseLong(parts[1]);
+                    long length = Long.parseLong(parts[2]);
+                    long newOffset = target.position();
+                    long copied = 0;
+                    while (copied < length) {
+                        copied += source.transferTo(offset + copied, length - copied, target);
+                    }
+                    index.append(parts[0]).append(' ').append(newOffset).append(' ').append(length)
+                            .append(parts.length > 3 ? " " + parts[3] : "").append('\n');
+                }
+            }
+            Files.writeString(compactIndex, index, StandardCharsets.UTF_8);
+            Files.move(compactData, dataFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(compactIndex, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Compacted REST cassette {} from {} to {} recordings", dataFile, lines.size(), latest.size());
+        } catch (IOException e) {
+            logger.warn("Failed to compact REST cassette {}", dataFile, e);
+        }
+    }
+
+    private String fingerprint(String method, String url, String body, Map<String, String> headers) {
+        String request = method.toUpperCase(Locale.ROOT) + "\n" + url + "\n"
+                + (body != null ? sha256(body) : "-") + "\n" + selectHeaders(headers);
+        return sha256(request);
+    }
+
+    private Map<String, String> selectHeaders(Map<String, String> headers) {
+        Map<String, String> selected = new TreeMap<>();
+        headers.forEach((name, value) -> {
+            if (fingerprintHeaders.contains(name.toLowerCase(Locale.ROOT))) {
+                selected.put(name.toLowerCase(Locale.ROOT), value);
+            }
+        });
+        return selected;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
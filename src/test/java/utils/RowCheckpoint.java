@@ -0,0 +1,168 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-test checkpoint of data row outcomes in {@code checkpoint.dir}, so a run started with {@code -Dresume=true}
+ * skips rows that already passed, runs only the assertions for rows whose actions already completed (apart from the
+ * last remaining row, whose actions set up the browser state the assertions check), and reruns failed or unstarted
+ * rows. Files hold one {@code row=STATUS} line per row and are rewritten atomically; scenarios and shards sharing a
+ * test id merge their rows under a file lock.
+ */
+public class RowCheckpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCheckpoint.class);
+    private static final String PASSED = "PASSED";
+    private static final String FAILED = "FAILED";
+    private static final String ACTIONS_DONE = "ACTIONS_DONE";
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final String testId;
+    private final Path file;
+    private final List<Integer> rows;
+    private final Map<Integer, String> previous;
+    private final Map<Integer, String> pending = new TreeMap<>();
+    private final Map<Integer, String> current = new TreeMap<>();
+    private long lastFlush = System.currentTimeMillis();
+
+    private RowCheckpoint(String testId, Path file, List<Integer> rows, Map<Integer, String> previous) {
+        this.testId = testId;
+        this.file = file;
+        this.rows = rows;
+        this.previous = previous;
+    }
+
+    /**
+     * Opens the checkpoint for the given rows of a test. Without {@code -Dresume=true} their previous outcomes are
+     * discarded so a later resume only trusts results from this run.
+     */
+    public static RowCheckpoint open(String testId, List<Integer> rows) {
+        String dir = ConfigManager.getConfig("checkpoint.dir");
+        Path file = Paths.get(dir != null ? dir.trim() : ".checkpoints", testId + ".properties");
+        boolean resume = Boolean.getBoolean("resume");
+        Map<Integer, String> previous = new TreeMap<>();
+        Map<Integer, String> reset = new TreeMap<>();
+        Map<Integer, String> stored = update(file, Collections.emptyMap());
+        for (int row : rows) {
+            if (resume && stored.containsKey(row)) {
+                previous.put(row, stored.get(row));
+            } else if (stored.containsKey(row)) {
+                reset.put(row, null);
+            }
+        }
+        if (!reset.isEmpty()) {
+            update(file, reset);
+        }
+        RowCheckpoint checkpoint = new RowCheckpoint(testId, file, rows, previous);
+        if (resume) {
+            logger.info("Resuming test {}: {} of {} rows already passed, {} more only need their assertions", testId,
+                    checkpoint.countPrevious(PASSED), rows.size(), checkpoint.countPrevious(ACTIONS_DONE));
+        }
+        return checkpoint;
+    }
+
+    public boolean alreadyPassed(int row) {
+        return PASSED.equals(previous.get(row));
+    }
+
+    /**
+     * Whether the row's actions completed in a previous run while its assertions had not passed yet.
+     */
+    public boolean actionsDone(int row) {
+        return ACTIONS_DONE.equals(previous.get(row));
+    }
+
+    public void recordActionsDone(int row) {
+        update(row, ACTIONS_DONE, false);
+    }
+
+    public void record(int row, boolean passed) {
+        update(row, passed ? PASSED : FAILED, !passed);
+    }
+
+    private void update(int row, String status, boolean flushNow) {
+        current.put(row, status);
+        pending.put(row, status);
+        if (flushNow || System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (!pending.isEmpty()) {
+            update(file, pending);
+            pending.clear();
+        }
+        lastFlush = System.currentTimeMillis();
+    }
+
+    /**
+     * Combined outcome of the prior run and this one, e.g. for the scenario report.
+     */
+    public String summary() {
+        long passedBefore = rows.stream().filter(this::alreadyPassed).count();
+        long passedNow = current.values().stream().filter(PASSED::equals).count();
+        long failedNow = current.values().stream().filter(FAILED::equals).count();
+        return String.format("Test %s: %d of %d rows passed (%d in a previous run, %d in this run), %d failed, %d not finished; checkpoint %s",
+                testId, passedBefore + passedNow, rows.size(), passedBefore, passedNow, failedNow,
+                rows.size() - passedBefore - passedNow - failedNow, file);
+    }
+
+    private long countPrevious(String status) {
+        return previous.values().stream().filter(status::equals).count();
+    }
+
+    /**
+     * Applies the given changes ({@code null} removes a row) and returns the resulting file contents.
+     */
+    private static synchronized Map<Integer, String> update(Path file, Map<Integer, String> changes) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                Map<Integer, String> stored = new TreeMap<>();
+                if (Files.exists(file)) {
+                    for (String line : Files.readAllLines(file)) {
+                        int separator = line.indexOf('=');
+                        if (separator > 0) {
+                            stored.put(Integer.parseInt(line.substring(0, separator).trim()), line.substring(separator + 1).trim());
+                        }
+                    }
+                }
+                if (changes.isEmpty()) {
+                    return stored;
+                }
+                changes.forEach((row, status) -> {
+                    if (status == null) {
+                        stored.remove(row);
+                    } else {
+                        stored.put(row, status);
+                    }
+                });
+                StringBuilder content = new StringBuilder();
+                stored.forEach((row, status) -> content.append(row).append('=').append(status).append('\n'));
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(temp, content);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return stored;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to update checkpoint " + file, e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deterministic split of test ids and data rows across {@code -Dshard.total} processes, selected with
+ * {@code -Dshard.index}. Units are packed longest-first onto the least loaded shard using durations from the
+ * {@link TestHistory}, so every shard computes the same plan as long as they share the same history file, ideally
+ * passed explicitly with {@code -Dshard.history}. The plan digest in the log shows whether they did.
+ */
+public class ShardPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardPlan.class);
+    private static ShardPlan instance;
+
+    private final int index;
+    private final int total;
+    private final Map<String, Integer> assignments = new HashMap<>();
+
+    private ShardPlan(int index, int total) {
+        this.index = index;
+        this.total = total;
+    }
+
+    public static synchronized ShardPlan current() {
+        if (instance == null) {
+            int total = Integer.getInteger("shard.total", 1);
+            int index = Integer.getInteger("shard.index", 0);
+            if (total < 1 || index < 0 || index >= total) {
+                throw new IllegalArgumentException("Invalid shard " + index + " of " + total);
+            }
+            instance = new ShardPlan(index, total);
+            if (total > 1) {
+                String sharedHistory = System.getProperty("shard.history");
+                if (sharedHistory != null && !sharedHistory.isBlank()) {
+                    instance.assign(TestHistory.load(Paths.get(sharedHistory.trim())));
+                } else {
+                    logger.warn("No -Dshard.history given, planning shard {}/{} from the local history; shards whose histories differ split the units differently",
+                            index, total);
+                    instance.assign(TestHistory.getInstance());
+                }
+            }
+        }
+        return instance;
+    }
+
+    static ShardPlan plan(TestHistory history, int index, int total) {
+        ShardPlan plan = new ShardPlan(index, total);
+        plan.assign(history);
+        return plan;
+    }
+
+    private void assign(TestHistory history) {
+        Map<String, Long> weights = new HashMap<>();
+        for (String testId : new TreeSet<>(ConfigManager.getTestIds())) {
+            long duration = history.estimateTestDuration(testId);
+            List<Map<String, String>> testData = ConfigManager.getTestData(testId);
+            if (testData == null) {
+                weights.put(testId, Math.max(1, duration));
+            } else {
+                for (int row = 0; row < testData.size(); row++) {
+                    weights.put(rowKey(testId, row), Math.max(1, duration / Math.max(1, testData.size())));
+                }
+            }
+        }
+
+        List<String> units = new ArrayList<>(weights.keySet());
+        units.sort(Comparator.comparing((String unit) -> weights.get(unit)).reversed().thenComparing(Comparator.naturalOrder()));
+        long[] loads = new long[total];
+        for (String unit : units) {
+            int shard = 0;
+            for (int i = 1; i < total; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += weights.get(unit);
+            assignments.put(unit, shard);
+        }
+        logger.info("Shard {}/{} owns {} of {} units (estimated load {} ms, all shards {}), plan digest {}",
+                index, total, assignments.values().stream().filter(s -> s == index).count(), units.size(),
+                loads[index], Arrays.toString(loads), getDigest());
+    }
+
+    /**
+     * Hash of the full unit-to-shard assignment. Shards only split the work correctly if they all log the same digest.
+     */
+    public String getDigest() {
+        StringBuilder plan = new StringBuilder();
+        new TreeMap<>(assignments).forEach((unit, shard) -> plan.append(unit).append('=').append(shard).append('\n'));
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(plan.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 6);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public boolean isSharded() {
+        return total > 1;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns whether this shard runs the given test, i.e. owns the test itself or at least one of its data rows.
+     * Scenarios that are not configured test ids are spread by name hash.
+     */
+    public boolean ownsTest(String testId) {
+        if (!isSharded()) {
+            return true;
+        }
+        Integer shard = assignments.get(testId);
+        if (shard != null) {
+            return shard == index;
+        }
+        String rowPrefix = testId + "#";
+        boolean hasRows = false;
+        for (Map.Entry<String, Integer> entry : assignments.entrySet()) {
+            if (entry.getKey().startsWith(rowPrefix)) {
+                hasRows = true;
+                if (entry.getValue() == index) {
+                    return true;
+                }
+            }
+        }
+        return !hasRows && Math.floorMod(testId.hashCode(), total) == index;
+    }
+
+    /**
+     * Returns whether this shard runs the given scenario, which for generated row chunks means owning at least
+     * one row of the chunk.
+     */
+    public boolean ownsScenario(String scenarioName) {
+        int[] rowRange = FeatureGenerator.getRowRange(scenarioName);
+        if (rowRange == null) {
+            return ownsTest(scenarioName);
+        }
+        String testId = FeatureGenerator.getTestId(scenarioName);
+        return IntStream.rangeClosed(rowRange[0], rowRange[1]).anyMatch(row -> ownsRow(testId, row));
+    }
+
+    public boolean ownsRow(String testId, int row) {
+        if (!isSharded()) {
+            return true;
+        }
+        Integer shard = assignments.get(rowKey(testId, row));
+        return shard != null ? shard == index : Math.floorMod(row, total) == index;
+    }
+
+    private static String rowKey(String testId, int row) {
+        return testId + "#" + row;
+    }
+}
@@ -0,0 +1,85 @@
+package utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ShardPlanTest {
+
+    private static final int TOTAL = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void everyUnitIsOwnedByExactlyOneShard() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history.json");
+        TestHistory history = TestHistory.load(file);
+        history.record("login_multi_users", 9000, true);
+        history.record("user_journey", 4000, true);
+        history.save();
+
+        List<ShardPlan> shards = plans(TestHistory.load(file));
+        int rows = 0;
+        for (String testId : ConfigManager.getTestIds()) {
+            List<Map<String, String>> testData = ConfigManager.getTestData(testId);
+            if (testData == null) {
+                assertEquals("Owners of " + testId, 1, shards.stream().filter(shard -> shard.ownsTest(testId)).count());
+                continue;
+            }
+            for (int row = 0; row < testData.size(); row++) {
+                int current = row;
+                assertEquals("Owners of " + testId + " row " + row, 1,
+                        shards.stream().filter(shard -> shard.ownsRow(testId, current)).count());
+                rows++;
+            }
+            assertTrue(testId + " is run by a shard that owns none of its rows",
+                    shards.stream().filter(shard -> shard.ownsTest(testId))
+                            .allMatch(shard -> testData.isEmpty() || hasRow(shard, testId, testData.size())));
+        }
+        assertTrue("Expected data-driven tests in the test data", rows > 0);
+    }
+
+    @Test
+    public void shardsSharingAHistoryComputeTheSameDigest() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history.json");
+        TestHistory history = TestHistory.load(file);
+        history.record("login_multi_users", 9000, true);
+        history.save();
+
+        List<ShardPlan> shards = plans(TestHistory.load(file));
+        assertEquals(1, shards.stream().map(ShardPlan::getDigest).distinct().count());
+
+        // A shard that planned from a different history splits the units differently and says so in its digest
+        TestHistory other = TestHistory.load(folder.getRoot().toPath().resolve("other.json"));
+        other.record("user_journey", 60000, true);
+        other.record("order_processing", 30000, true);
+        assertNotEquals(shards.get(0).getDigest(), ShardPlan.plan(other, 0, TOTAL).getDigest());
+    }
+
+    private static List<ShardPlan> plans(TestHistory history) {
+        List<ShardPlan> shards = new ArrayList<>();
+        for (int index = 0; index < TOTAL; index++) {
+            shards.add(ShardPlan.plan(history, index, TOTAL));
+        }
+        return shards;
+    }
+
+    private static boolean hasRow(ShardPlan shard, String testId, int rows) {
+        for (int row = 0; row < rows; row++) {
+            if (shard.ownsRow(testId, row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,219 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Local history of per-test durations and pass/fail results, used to schedule the longest and most recently
+ * failing tests first. Entries are keyed by scenario name, which is the test id for the generic scenarios.
+ */
+public class TestHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestHistory.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int MAX_RESULTS = 5;
+    private static TestHistory instance;
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    // This run's own results, one combined entry per key, which is all a shard contributes to the merge
+    private final Map<String, Entry> recorded = new TreeMap<>();
+
+    public static class Entry {
+        public long durationMillis;
+        public int runs;
+        public String results = "";
+    }
+
+    private TestHistory(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    public static synchronized TestHistory getInstance() {
+        if (instance == null) {
+            String fileName = ConfigManager.getConfig("history.file");
+            instance = load(Paths.get(fileName != null ? fileName.trim() : ".test-history/history.json"));
+        }
+        return instance;
+    }
+
+    static TestHistory load(Path file) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (Files.exists(file)) {
+            try {
+                entries.putAll(MAPPER.readValue(file.toFile(), new TypeReference<Map<String, Entry>>() {
+                }));
+                logger.debug("Loaded {} test history entries from {}", entries.size(), file);
+            } catch (IOException e) {
+                logger.warn("Ignoring unreadable test history file {}", file, e);
+            }
+        }
+        return new TestHistory(file, entries);
+    }
+
+    /**
+     * Returns the smoothed duration of the given test, or {@code null} if it has never run.
+     */
+    public synchronized Long getDuration(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? entry.durationMillis : null;
+    }
+
+    /**
+     * Returns the recorded duration, or the average of all known durations for tests without history.
+     */
+    public synchronized long estimateDuration(String key) {
+        Long duration = getDuration(key);
+        if (duration != null) {
+            return duration;
+        }
+        return (long) entries.values().stream().mapToLong(e -> e.durationMillis).average().orElse(0);
+    }
+
+    /**
+     * Estimates a whole test, summing its generated row chunks when the test itself has no entry.
+     */
+    public synchronized long estimateTestDuration(String testId) {
+        if (entries.containsKey(testId)) {
+            return entries.get(testId).durationMillis;
+        }
+        List<Entry> chunks = entries.entrySet().stream()
+                .filter(e -> FeatureGenerator.getTestId(e.getKey()).equals(testId))
+                .map(Map.Entry::getValue)
+                .toList();
+        return chunks.isEmpty() ? estimateDuration(testId) : chunks.stream().mapToLong(e -> e.durationMillis).sum();
+    }
+
+    public synchronized boolean recentlyFailed(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.results.contains("F");
+    }
+
+    public synchronized void record(String key, long durationMillis, boolean passed) {
+        update(key, durationMillis, passed);
+        recorded.merge(key, runEntry(durationMillis, passed), TestHistory::combineRuns);
+    }
+
+    private void update(String key, long durationMillis, boolean passed) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        entry.durationMillis = entry.runs == 0 ? durationMillis : (entry.durationMillis + durationMillis) / 2;
+        entry.runs++;
+        entry.results = (entry.results + (passed ? "P" : "F"));
+        if (entry.results.length() > MAX_RESULTS) {
+            entry.results = entry.results.substring(entry.results.length() - MAX_RESULTS);
+        }
+    }
+
+    private static Entry runEntry(long durationMillis, boolean passed) {
+        Entry entry = new Entry();
+        entry.durationMillis = durationMillis;
+        entry.runs = 1;
+        entry.results = passed ? "P" : "F";
+        return entry;
+    }
+
+    /**
+     * Combines two parts of the same run, e.g. the slices of a test's data rows that ran on different shards:
+     * their durations add up and the run failed if either part failed.
+     */
+    private static Entry combineRuns(Entry first, Entry second) {
+        return runEntry(first.durationMillis + second.durationMillis,
+                !first.results.contains("F") && !second.results.contains("F"));
+    }
+
+    public synchronized void save() {
+        saveTo(file, entries);
+    }
+
+    /**
+     * Saves only this run's results to a per-shard file, so that concurrently running shards keep planning from
+     * the same shared history until {@link #mergeShards()} folds their results back in.
+     */
+    public synchronized void saveShard(int shardIndex) {
+        saveTo(file.resolveSibling(file.getFileName() + ".shard-" + shardIndex), recorded);
+    }
+
+    private void saveTo(Path target, Map<String, Entry> values) {
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            MAPPER.writeValue(temp.toFile(), values);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.debug("Saved {} test history entries to {}", values.size(), target);
+        } catch (IOException e) {
+            logger.warn("Failed to save test history to {}", target, e);
+        }
+    }
+
+    /**
+     * Merges the per-shard history files into the shared history as one run, summing the durations and combining
+     * the results of tests whose rows were split across shards, and removes them.
+     */
+    public synchronized void mergeShards() throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<Path> shardFiles;
+        try (Stream<Path> files = Files.list(dir)) {
+            shardFiles = files.filter(f -> f.getFileName().toString().startsWith(file.getFileName() + ".shard-"))
+                    .sorted()
+                    .toList();
+        }
+        Map<String, Entry> run = new TreeMap<>();
+        for (Path shardFile : shardFiles) {
+            load(shardFile).entries.forEach((key, entry) -> run.merge(key, entry, TestHistory::combineRuns));
+        }
+        run.forEach((key, entry) -> update(key, entry.durationMillis, !entry.results.contains("F")));
+        save();
+        for (Path shardFile : shardFiles) {
+            Files.delete(shardFile);
+        }
+        logger.info("Merged {} shard history files into {}", shardFiles.size(), file);
+    }
+
+    /**
+     * Longest-processing-time-first ordering, optionally putting recently failing tests in front.
+     */
+    public Comparator<String> schedulingOrder() {
+        boolean failedFirst = Boolean.parseBoolean(String.valueOf(ConfigManager.getConfig("history.failedFirst")).trim());
+        Comparator<String> order = Comparator.comparingLong(this::estimateDuration).reversed();
+        if (failedFirst) {
+            order = Comparator.comparing((String key) -> !recentlyFailed(key)).thenComparing(order);
+        }
+        return order.thenComparing(Comparator.naturalOrder());
+    }
+
+    /**
+     * Simulates list scheduling of the given durations, in order, onto the given number of workers.
+     */
+    public static long estimateMakespan(List<Long> durations, int workers) {
+        PriorityQueue<Long> loads = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(workers, 1); i++) {
+            loads.add(0L);
+        }
+        for (long duration : durations) {
+            loads.add(loads.poll() + duration);
+        }
+        return loads.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+}
@@ -0,0 +1,63 @@
+package utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestHistoryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mergeShardsCombinesRowsSplitAcrossShards() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history.json");
+        TestHistory previous = TestHistory.load(file);
+        previous.record("login_multi_users", 2000, true);
+        previous.record("user_journey", 500, true);
+        previous.save();
+
+        // Both shards start from the same shared history and each runs part of login_multi_users' rows
+        TestHistory shard0 = TestHistory.load(file);
+        shard0.record("login_multi_users", 400, true);
+        shard0.record("user_journey", 300, true);
+        shard0.saveShard(0);
+        TestHistory shard1 = TestHistory.load(file);
+        shard1.record("login_multi_users", 600, false);
+        shard1.saveShard(1);
+
+        TestHistory merged = TestHistory.load(file);
+        merged.mergeShards();
+
+        TestHistory reloaded = TestHistory.load(file);
+        assertEquals(Long.valueOf((2000 + 400 + 600) / 2), reloaded.getDuration("login_multi_users"));
+        assertTrue(reloaded.recentlyFailed("login_multi_users"));
+        assertEquals(Long.valueOf((500 + 300) / 2), reloaded.getDuration("user_journey"));
+        assertFalse(reloaded.recentlyFailed("user_journey"));
+        assertFalse(Files.exists(file.resolveSibling("history.json.shard-0")));
+        assertFalse(Files.exists(file.resolveSibling("history.json.shard-1")));
+    }
+
+    @Test
+    public void shardFileHoldsOnlyThisRunsResults() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history.json");
+        TestHistory previous = TestHistory.load(file);
+        previous.record("user_journey", 500, true);
+        previous.save();
+
+        TestHistory shard = TestHistory.load(file);
+        shard.record("login_multi_users", 400, true);
+        shard.saveShard(0);
+
+        TestHistory shardFile = TestHistory.load(file.resolveSibling("history.json.shard-0"));
+        assertEquals(Long.valueOf(400), shardFile.getDuration("login_multi_users"));
+        assertEquals(null, shardFile.getDuration("user_journey"));
+    }
+}
@@ -1,6 +1,9 @@
 Feature: Generic Application Testing
 
-  Scenario Outline: Execute various test scenarios
+  Scenario Outline: <testId>
+    Executes the configured test; the scenario name is the test id used for duration history.
+    Only used with features.generate=false, otherwise scenarios are generated from tests.properties.
+
     Given user is on the "<initialPage>" page
     When user executes test "<testId>"
     Then results match expected outcomes for test "<testId>"